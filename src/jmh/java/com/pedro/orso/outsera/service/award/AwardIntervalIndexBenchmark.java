@@ -0,0 +1,65 @@
+package com.pedro.orso.outsera.service.award;
+
+import com.pedro.orso.outsera.repository.WinningCredit;
+import com.pedro.orso.outsera.service.AwardIntervalIndex;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory index behind {@code AwardService}: building it from the winning credits, as done on startup and
+ * after a reload, and answering the plain and the top-k window queries.
+ * <p>
+ * The index keeps boxed years and gaps per producer, 10⁷ credits need about 4 GB of heap:
+ * {@code -Djmh.args="-p credits=10000000 -jvmArgsAppend -Xmx6g"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class AwardIntervalIndexBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int credits;
+
+    private List<WinningCredit> winningCredits;
+    private AwardIntervalIndex index;
+
+    @Setup
+    public void setUp() {
+        winningCredits = new SyntheticAwards(credits, 42).credits();
+        index = new AwardIntervalIndex();
+        index.rebuild(winningCredits);
+    }
+
+    @Benchmark
+    public AwardIntervalIndex rebuild() {
+        AwardIntervalIndex rebuilt = new AwardIntervalIndex();
+        rebuilt.rebuild(winningCredits);
+        return rebuilt;
+    }
+
+    @Benchmark
+    public ProducerIntervalResponseDTO minAndMax() {
+        return index.getMinAndMaxIntervals();
+    }
+
+    @Benchmark
+    public ProducerIntervalResponseDTO topTenInWindow() {
+        return index.getIntervals(10, 1950, 2000);
+    }
+}
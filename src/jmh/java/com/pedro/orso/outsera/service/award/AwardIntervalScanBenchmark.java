@@ -0,0 +1,69 @@
+package com.pedro.orso.outsera.service.award;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The scan shared by the streaming and parallel engines over (producer, year) pairs already read from the
+ * database, on one thread and on the fork/join pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AwardIntervalScanBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int credits;
+
+    private long[] producerIds;
+    private int[] years;
+    private ForkJoinPool pool;
+    private ForkJoinPool singleThread;
+
+    @Setup
+    public void setUp() {
+        long[] pairs = new SyntheticAwards(credits, 42).sortedPairs();
+        producerIds = new long[pairs.length];
+        years = new int[pairs.length];
+        for (int i = 0; i < pairs.length; i++) {
+            producerIds[i] = SyntheticAwards.producerOf(pairs[i]);
+            years[i] = SyntheticAwards.yearOf(pairs[i]);
+        }
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        singleThread = new ForkJoinPool(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+        singleThread.shutdown();
+    }
+
+    @Benchmark
+    public IntervalCandidates singleThreadScan() {
+        return ParallelAwardIntervalEngine.compute(singleThread, producerIds, years, credits, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public IntervalCandidates parallelScan() {
+        return ParallelAwardIntervalEngine.compute(pool, producerIds, years, credits,
+                ParallelAwardIntervalEngine.DEFAULT_THRESHOLD);
+    }
+}
@@ -0,0 +1,93 @@
+package com.pedro.orso.outsera.service.award;
+
+import com.pedro.orso.outsera.repository.WinningCredit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic winning credits: two producers per winning movie, one producer every five credits, wins spread over
+ * 120 years. Same seed, same data.
+ */
+final class SyntheticAwards {
+
+    private final long[] movieIds;
+    private final int[] years;
+    private final long[] producerIds;
+    private final String[] names;
+
+    SyntheticAwards(int credits, long seed) {
+        Random random = new Random(seed);
+        int producers = Math.max(credits / 5, 2);
+        movieIds = new long[credits];
+        years = new int[credits];
+        producerIds = new long[credits];
+        names = new String[producers];
+        for (int i = 0; i < producers; i++) {
+            names[i] = "Producer " + i;
+        }
+        int year = 0;
+        for (int i = 0; i < credits; i++) {
+            if (i % 2 == 0) {
+                year = 1900 + random.nextInt(120);
+            }
+            movieIds[i] = i / 2;
+            years[i] = year;
+            producerIds[i] = random.nextInt(producers);
+        }
+    }
+
+    List<WinningCredit> credits() {
+        List<WinningCredit> credits = new ArrayList<>(movieIds.length);
+        for (int i = 0; i < movieIds.length; i++) {
+            credits.add(new Credit(movieIds[i], years[i], producerIds[i], names[(int) producerIds[i]]));
+        }
+        return credits;
+    }
+
+    /**
+     * (producer id, year) pairs sorted by producer and then year, as the scanning engines read them.
+     */
+    long[] sortedPairs() {
+        long[] pairs = new long[movieIds.length];
+        for (int i = 0; i < pairs.length; i++) {
+            pairs[i] = producerIds[i] << 32 | years[i];
+        }
+        Arrays.sort(pairs);
+        return pairs;
+    }
+
+    static long producerOf(long pair) {
+        return pair >>> 32;
+    }
+
+    static int yearOf(long pair) {
+        return (int) pair;
+    }
+
+    private record Credit(Long movieId, int releaseYear, Long producerId, String producerName)
+            implements WinningCredit {
+
+        @Override
+        public Long getMovieId() {
+            return movieId;
+        }
+
+        @Override
+        public int getReleaseYear() {
+            return releaseYear;
+        }
+
+        @Override
+        public Long getProducerId() {
+            return producerId;
+        }
+
+        @Override
+        public String getProducerName() {
+            return producerName;
+        }
+    }
+}
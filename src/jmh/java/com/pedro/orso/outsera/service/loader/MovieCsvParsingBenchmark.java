@@ -0,0 +1,88 @@
+package com.pedro.orso.outsera.service.loader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing stage of the loader on {@code movielist.csv} repeated {@code copies} times: the byte tokenizer the loader
+ * uses, the OpenCSV line parser it falls back to for quoted lines, and the producer and studio splitting.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MovieCsvParsingBenchmark {
+
+    @Param({"1", "100"})
+    private int copies;
+
+    private ByteBuffer file;
+    private List<String> lines;
+    private List<String> producerValues;
+    private List<String> studioValues;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] movieList = new ClassPathResource("movielist.csv").getContentAsByteArray();
+        String content = new String(movieList, StandardCharsets.UTF_8);
+        int header = content.indexOf('\n') + 1;
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(movieList.length * copies);
+        out.write(movieList, 0, header);
+        for (int i = 0; i < copies; i++) {
+            out.write(movieList, header, movieList.length - header);
+        }
+        file = ByteBuffer.wrap(out.toByteArray());
+
+        lines = content.substring(header).lines().filter(line -> !line.isBlank()).toList();
+        producerValues = lines.stream().map(line -> line.split(";", -1)[3]).toList();
+        studioValues = lines.stream().map(line -> line.split(";", -1)[2]).toList();
+    }
+
+    @Benchmark
+    public int tokenizer(Blackhole blackhole) {
+        return new MovieRowParser().parse(file.duplicate(), true, blackhole::consume);
+    }
+
+    @Benchmark
+    public void openCsvLines(Blackhole blackhole) throws IOException {
+        MovieRowParser parser = new MovieRowParser();
+        for (int i = 0; i < copies; i++) {
+            for (String line : lines) {
+                blackhole.consume(parser.parse(line));
+            }
+        }
+    }
+
+    @Benchmark
+    public void splitNames(Blackhole blackhole) {
+        for (int i = 0; i < copies; i++) {
+            for (String value : producerValues) {
+                blackhole.consume(MovieRowParser.splitProducers(value));
+            }
+            for (String value : studioValues) {
+                blackhole.consume(MovieRowParser.splitStudios(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.pedro.orso.outsera.web.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.orso.outsera.web.rest.dto.MovieDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerDto;
+import com.pedro.orso.outsera.web.rest.dto.StudioDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a {@code GET /v1/movies} page, with the object mapper configured the way Spring MVC
+ * builds it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MovieJsonBenchmark {
+
+    @Param({"20", "200", "2000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<MovieDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            MovieDTO movie = new MovieDTO();
+            movie.setId((long) i);
+            movie.setTitle("Movie title number " + i);
+            movie.setReleaseYear(1980 + i % 40);
+            movie.setWinner(i % 5 == 0);
+            movie.setStudios(List.of(studio(i % 30), studio(i % 30 + 1)));
+            movie.setProducers(List.of(producer(i % 300), producer(i % 300 + 1), producer(i % 300 + 2)));
+            page.add(movie);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    private static StudioDto studio(long id) {
+        StudioDto studio = new StudioDto();
+        studio.setId(id);
+        studio.setName("Studio " + id);
+        return studio;
+    }
+
+    private static ProducerDto producer(long id) {
+        ProducerDto producer = new ProducerDto();
+        producer.setId(id);
+        producer.setName("Producer " + id);
+        return producer;
+    }
+}
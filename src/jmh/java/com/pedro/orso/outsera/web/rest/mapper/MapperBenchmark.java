@@ -0,0 +1,103 @@
+package com.pedro.orso.outsera.web.rest.mapper;
+
+import com.pedro.orso.outsera.domain.Movie;
+import com.pedro.orso.outsera.domain.Producer;
+import com.pedro.orso.outsera.domain.Studio;
+import com.pedro.orso.outsera.web.rest.dto.MovieDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerDto;
+import com.pedro.orso.outsera.web.rest.dto.StudioDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * The generated MapStruct mappers on a movie with two studios and three producers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class MapperBenchmark {
+
+    private final MovieMapper movieMapper = new MovieMapperImpl();
+    private final ProducerMapper producerMapper = new ProducerMapperImpl();
+    private final StudioMapper studioMapper = new StudioMapperImpl();
+
+    private Movie movie;
+    private MovieDTO movieDTO;
+    private Producer producer;
+    private Studio studio;
+
+    @Setup
+    public void setUp() {
+        // Field injected by Spring in the application
+        ReflectionTestUtils.setField(movieMapper, "producerMapper", producerMapper);
+        ReflectionTestUtils.setField(movieMapper, "studioMapper", studioMapper);
+
+        movie = new Movie();
+        movie.setId(1L);
+        movie.setTitle("Can't Stop the Music");
+        movie.setReleaseYear(1980);
+        movie.setWinner(true);
+        movie.setStudios(LongStream.rangeClosed(1, 2).mapToObj(id -> {
+            Studio studio = new Studio();
+            studio.setId(id);
+            studio.setName("Studio " + id);
+            return studio;
+        }).toList());
+        movie.setProducers(LongStream.rangeClosed(1, 3).mapToObj(id -> {
+            Producer producer = new Producer();
+            producer.setId(id);
+            producer.setName("Producer " + id);
+            return producer;
+        }).toList());
+
+        movieDTO = movieMapper.toDto(movie);
+        producer = movie.getProducers().get(0);
+        studio = movie.getStudios().get(0);
+    }
+
+    @Benchmark
+    public MovieDTO movieToDto() {
+        return movieMapper.toDto(movie);
+    }
+
+    @Benchmark
+    public MovieDTO movieToSummaryDto() {
+        return movieMapper.toSummaryDto(movie);
+    }
+
+    @Benchmark
+    public Movie movieToEntity() {
+        return movieMapper.toEntity(movieDTO);
+    }
+
+    @Benchmark
+    public ProducerDto producerToDto() {
+        return producerMapper.toDto(producer);
+    }
+
+    @Benchmark
+    public StudioDto studioToDto() {
+        return studioMapper.toDto(studio);
+    }
+
+    @Benchmark
+    public List<ProducerDto> producerListToDto() {
+        return producerMapper.toDto(movie.getProducers());
+    }
+}
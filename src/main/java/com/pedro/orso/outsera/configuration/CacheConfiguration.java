@@ -0,0 +1,63 @@
+package com.pedro.orso.outsera.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pedro.orso.outsera.service.SingleFlight;
+import com.pedro.orso.outsera.web.rest.dto.MovieDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerDto;
+import com.pedro.orso.outsera.web.rest.dto.StudioDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Bounded Caffeine caches of the mapped DTOs read by id.
+ * <p>
+ * Puts and evictions made inside a transaction only reach the cache once it commits, so a concurrent read cannot
+ * cache a value that is about to be rolled back or overwritten. Concurrent misses on the same id run a single
+ * query through the {@link SingleFlight}s declared here. {@code @Cacheable(sync = true)} would do the same but
+ * runs the query inside a {@code ConcurrentHashMap} bin lock, which pins the carrier of a virtual thread.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    public static final String MOVIES = "movies";
+    public static final String PRODUCERS = "producers";
+    public static final String STUDIOS = "studios";
+
+    /**
+     * Caffeine spec shared by the caches, {@code recordStats} feeds the {@code cache.*} metrics.
+     */
+    @Value("${outsera.cache.spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+    private String spec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.from(spec));
+        cacheManager.setCacheNames(List.of(MOVIES, PRODUCERS, STUDIOS));
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    @Bean
+    public SingleFlight<Long, MovieDTO> movieLoads(MeterRegistry meterRegistry) {
+        return new SingleFlight<>(MOVIES, meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<Long, ProducerDto> producerLoads(MeterRegistry meterRegistry) {
+        return new SingleFlight<>(PRODUCERS, meterRegistry);
+    }
+
+    @Bean
+    public SingleFlight<Long, StudioDto> studioLoads(MeterRegistry meterRegistry) {
+        return new SingleFlight<>(STUDIOS, meterRegistry);
+    }
+}
@@ -0,0 +1,122 @@
+package com.pedro.orso.outsera.configuration;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+
+/**
+ * Lets at most {@code limit} callers hold a connection at once, the others waiting in line on a fair
+ * {@link Semaphore}. With virtual threads request concurrency is no longer bounded by the Tomcat pool, so this is
+ * what keeps thousands of them from rushing the connection pool, and bounds how many can be inside the JDBC
+ * driver (and its {@code synchronized} blocks) at the same time. The semaphore parks virtual threads without
+ * pinning their carrier.
+ * <p>
+ * The permit is given back when the connection is closed, i.e. returned to the pool.
+ */
+public class ConnectionLimitingDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int limit;
+    private final Duration timeout;
+    private final LongConsumer waitNanos;
+
+    public ConnectionLimitingDataSource(DataSource target, int limit, Duration timeout) {
+        this(target, limit, timeout, nanos -> {
+        });
+    }
+
+    /**
+     * @param waitNanos told how long each caller waited for its permit, timeouts included.
+     */
+    public ConnectionLimitingDataSource(DataSource target, int limit, Duration timeout, LongConsumer waitNanos) {
+        super(target);
+        this.permits = new Semaphore(limit, true);
+        this.limit = limit;
+        this.timeout = timeout;
+        this.waitNanos = waitNanos;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return limited(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Callers currently waiting for a permit.
+     */
+    public int waiting() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Callers currently holding a connection.
+     */
+    public int active() {
+        return limit - permits.availablePermits();
+    }
+
+    private void acquire() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException("No connection available after " + timeout.toMillis()
+                        + " ms, " + limit + " in use and " + permits.getQueueLength() + " callers waiting");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+        } finally {
+            waitNanos.accept(System.nanoTime() - start);
+        }
+    }
+
+    private Connection limited(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(ConnectionLimitingDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("close")) {
+                        // Closing twice is allowed and must not give the permit back twice
+                        if (released.compareAndSet(false, true)) {
+                            try {
+                                connection.close();
+                            } finally {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
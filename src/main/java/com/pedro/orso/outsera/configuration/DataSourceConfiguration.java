@@ -0,0 +1,59 @@
+package com.pedro.orso.outsera.configuration;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps the data source in a {@link ConnectionLimitingDataSource} when {@code outsera.datasource.connection-limit}
+ * is set, which the {@code virtual-threads} profile does.
+ */
+@Configuration
+@ConditionalOnProperty("outsera.datasource.connection-limit")
+public class DataSourceConfiguration {
+
+    @Bean
+    public static BeanPostProcessor connectionLimitingDataSourcePostProcessor(
+            Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        Binder binder = Binder.get(environment);
+        int limit = binder.bind("outsera.datasource.connection-limit", Integer.class).get();
+        Duration timeout = binder.bind("outsera.datasource.connection-timeout", Duration.class)
+                .orElse(Duration.ofSeconds(30));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConnectionLimitingDataSource) {
+                    return bean;
+                }
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry == null) {
+                    return new ConnectionLimitingDataSource(dataSource, limit, timeout);
+                }
+                Timer wait = Timer.builder("jdbc.connections.limiter.wait")
+                        .description("Time spent waiting for a connection permit")
+                        .register(registry);
+                ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(dataSource, limit, timeout,
+                        nanos -> wait.record(nanos, TimeUnit.NANOSECONDS));
+                Gauge.builder("jdbc.connections.limiter.waiting", limited, ConnectionLimitingDataSource::waiting)
+                        .description("Callers waiting for a connection permit")
+                        .register(registry);
+                Gauge.builder("jdbc.connections.limiter.active", limited, ConnectionLimitingDataSource::active)
+                        .description("Callers holding a connection permit")
+                        .register(registry);
+                return limited;
+            }
+        };
+    }
+}
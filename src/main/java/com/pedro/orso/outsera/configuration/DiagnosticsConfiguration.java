@@ -0,0 +1,33 @@
+package com.pedro.orso.outsera.configuration;
+
+import com.pedro.orso.outsera.diagnostics.InstrumentedDataSource;
+import com.pedro.orso.outsera.diagnostics.SlowStatementEvent;
+import com.pedro.orso.outsera.diagnostics.StatementCount;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data source in an {@link InstrumentedDataSource}, the source of the {@link SlowStatementEvent}s and of
+ * the {@link StatementCount}s, unless {@code outsera.diagnostics.jdbc-instrumentation} is {@code false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "outsera.diagnostics.jdbc-instrumentation", matchIfMissing = true)
+public class DiagnosticsConfiguration {
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof InstrumentedDataSource) {
+                    return bean;
+                }
+                return new InstrumentedDataSource(dataSource);
+            }
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package com.pedro.orso.outsera.configuration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rows returned by each repository query, as {@code spring.data.repository.rows}, next to the
+ * {@code spring.data.repository.invocations} timers Spring Boot already records. Tagged with the repository and
+ * method names only, both bounded by the code.
+ * <p>
+ * Only methods returning entities, collections, slices or optionals are measured; saves, counts and streams are
+ * left out.
+ */
+@Configuration
+public class RepositoryMetricsConfiguration {
+
+    @Bean
+    public static BeanPostProcessor repositoryRowsMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> proxyFactory.addAdvice(
+                                    rowsInterceptor(repository, summaries, meterRegistry))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor rowsInterceptor(RepositoryInformation repository,
+                                                     Map<String, DistributionSummary> summaries,
+                                                     ObjectProvider<MeterRegistry> meterRegistry) {
+        String repositoryName = repository.getRepositoryInterface().getSimpleName();
+        return invocation -> {
+            Object result = invocation.proceed();
+            Method method = invocation.getMethod();
+            MeterRegistry registry;
+            if (isQuery(method, repository) && (registry = meterRegistry.getIfAvailable()) != null) {
+                summaries.computeIfAbsent(repositoryName + "." + method.getName(), key ->
+                                DistributionSummary.builder("spring.data.repository.rows")
+                                        .description("Rows returned by a repository query")
+                                        .baseUnit("rows")
+                                        .tag("repository", repositoryName)
+                                        .tag("method", method.getName())
+                                        .register(registry))
+                        .record(rows(result));
+            }
+            return result;
+        };
+    }
+
+    private static boolean isQuery(Method method, RepositoryInformation repository) {
+        Class<?> type = method.getReturnType();
+        if (method.getName().startsWith("save")) {
+            return false;
+        }
+        return Iterable.class.isAssignableFrom(type) || Slice.class.isAssignableFrom(type)
+                || Optional.class.equals(type) || repository.getDomainType().isAssignableFrom(type);
+    }
+
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable<?> iterable) {
+            long rows = 0;
+            for (Object ignored : iterable) {
+                rows++;
+            }
+            return rows;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,72 @@
+package com.pedro.orso.outsera.diagnostics;
+
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.List;
+
+/**
+ * An award interval computation actually run, coalesced and cached reads excluded.
+ */
+@Name("com.pedro.orso.outsera.AwardComputation")
+@Label("Award Computation")
+@Category({"Outsera", "Awards"})
+@Description("Computation of the producers with the shortest and longest intervals between wins")
+@StackTrace(false)
+public class AwardComputationEvent extends jdk.jfr.Event {
+
+    @Label("Engine")
+    private String engine;
+
+    @Label("Query")
+    @Description("min-max, or top for the top k and year window query")
+    private String query;
+
+    @Label("Dataset Version")
+    private long datasetVersion;
+
+    @Label("Rows Scanned")
+    @Description("Rows read from the database, or intervals visited by the in-memory index")
+    private long rowsScanned;
+
+    @Label("Min Interval")
+    @Description("Shortest interval found, -1 when there is none")
+    private int minInterval;
+
+    @Label("Max Interval")
+    @Description("Longest interval found, -1 when there is none")
+    private int maxInterval;
+
+    @Label("Intervals")
+    @Description("Intervals returned, ties included")
+    private int intervals;
+
+    /**
+     * Ends the event and commits it when it is enabled and over its threshold. The response is only read then.
+     */
+    public void commit(String engine, String query, long datasetVersion, long rowsScanned,
+                       ProducerIntervalResponseDTO response) {
+        end();
+        if (shouldCommit()) {
+            this.engine = engine;
+            this.query = query;
+            this.datasetVersion = datasetVersion;
+            this.rowsScanned = rowsScanned;
+            this.minInterval = response.getMin() == null ? -1 : response.getMin().stream()
+                    .mapToInt(ProducerIntervalDTO::getInterval).min().orElse(-1);
+            this.maxInterval = response.getMax() == null ? -1 : response.getMax().stream()
+                    .mapToInt(ProducerIntervalDTO::getInterval).max().orElse(-1);
+            this.intervals = size(response.getMin()) + size(response.getMax());
+            commit();
+        }
+    }
+
+    private static int size(List<ProducerIntervalDTO> intervals) {
+        return intervals == null ? 0 : intervals.size();
+    }
+}
@@ -0,0 +1,81 @@
+package com.pedro.orso.outsera.diagnostics;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Flight recording kept running for the life of the application when {@code outsera.diagnostics.recording.enabled}
+ * is set: the JDK {@code default} settings, meant for production, plus the events of this package. Only the last
+ * {@code max-age} or {@code max-size} of it is kept, dumped to {@code destination} when the application stops, or
+ * at any time with {@code jcmd <pid> JFR.dump name=outsera}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("outsera.diagnostics.recording.enabled")
+public class ContinuousRecording {
+
+    /**
+     * Name of the recording, for {@code jcmd}.
+     */
+    public static final String NAME = "outsera";
+
+    @Value("${outsera.diagnostics.slow-statement-threshold:100ms}")
+    private Duration slowStatementThreshold;
+
+    @Value("${outsera.diagnostics.recording.max-age:1h}")
+    private Duration maxAge;
+
+    @Value("${outsera.diagnostics.recording.max-size:100MB}")
+    private DataSize maxSize;
+
+    @Value("${outsera.diagnostics.recording.destination:}")
+    private String destination;
+
+    private Recording recording;
+
+    @PostConstruct
+    void start() throws IOException, ParseException {
+        recording = new Recording(Configuration.getConfiguration("default"));
+        recording.setName(NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.enable(LoaderChunkEvent.class);
+        recording.enable(AwardComputationEvent.class);
+        recording.enable(HttpRequestEvent.class);
+        recording.enable(SlowStatementEvent.class).withThreshold(slowStatementThreshold);
+        if (StringUtils.hasText(destination)) {
+            recording.setDestination(Path.of(destination));
+        }
+        recording.start();
+        log.info("Flight recording '{}' started, slow statements over {} ms", NAME,
+                slowStatementThreshold.toMillis());
+    }
+
+    /**
+     * The running recording.
+     */
+    public Recording recording() {
+        return recording;
+    }
+
+    // Stopping writes the recording to the destination, when there is one
+    @PreDestroy
+    void stop() {
+        recording.stop();
+        recording.close();
+    }
+}
@@ -0,0 +1,47 @@
+package com.pedro.orso.outsera.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An HTTP request, from the filter chain entry to the response being committed, with the dataset version it was
+ * served under so slow requests can be told apart before and after a write.
+ */
+@Name("com.pedro.orso.outsera.HttpRequest")
+@Label("HTTP Request")
+@Category({"Outsera", "HTTP"})
+@Description("HTTP request with its endpoint and the dataset version")
+@StackTrace(false)
+public class HttpRequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    private String method;
+
+    @Label("Endpoint")
+    @Description("URI template of the handler, the path when no handler matched")
+    private String endpoint;
+
+    @Label("Status")
+    private int status;
+
+    @Label("Dataset Version")
+    @Description("Dataset version when the request started")
+    private long datasetVersion;
+
+    /**
+     * Ends the event and commits it when it is enabled and over its threshold.
+     */
+    public void commit(String method, String endpoint, int status, long datasetVersion) {
+        end();
+        if (shouldCommit()) {
+            this.method = method;
+            this.endpoint = endpoint;
+            this.status = status;
+            this.datasetVersion = datasetVersion;
+            commit();
+        }
+    }
+}
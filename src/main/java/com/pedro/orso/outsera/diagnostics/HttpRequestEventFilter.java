@@ -0,0 +1,46 @@
+package com.pedro.orso.outsera.diagnostics;
+
+import com.pedro.orso.outsera.service.DatasetVersion;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Emits an {@link HttpRequestEvent} per request. Does nothing but the enabled check when no recording has the
+ * event on.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class HttpRequestEventFilter extends OncePerRequestFilter {
+
+    private final DatasetVersion datasetVersion;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        if (!event.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long version = datasetVersion.current();
+        event.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            event.commit(request.getMethod(), pattern != null ? pattern.toString() : request.getRequestURI(),
+                    response.getStatus(), version);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.pedro.orso.outsera.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A chunk of movie rows written by the loader, at startup or through an import, from the start of its transaction
+ * to its commit or rollback.
+ */
+@Name("com.pedro.orso.outsera.LoaderChunk")
+@Label("Loader Chunk")
+@Category({"Outsera", "Loader"})
+@Description("Chunk of movie rows written in one transaction")
+@StackTrace(false)
+public class LoaderChunkEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    @Description("load at startup or import")
+    private String operation;
+
+    @Label("Rows")
+    private int rows;
+
+    @Label("Producers Created")
+    private int producersCreated;
+
+    @Label("Studios Created")
+    private int studiosCreated;
+
+    @Label("Committed")
+    private boolean committed;
+
+    /**
+     * Ends the event and commits it when it is enabled and over its threshold.
+     */
+    public void commit(String operation, int rows, int producersCreated, int studiosCreated, boolean committed) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.rows = rows;
+            this.producersCreated = producersCreated;
+            this.studiosCreated = studiosCreated;
+            this.committed = committed;
+            commit();
+        }
+    }
+}
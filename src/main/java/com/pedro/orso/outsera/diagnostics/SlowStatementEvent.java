@@ -0,0 +1,43 @@
+package com.pedro.orso.outsera.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * A JDBC statement execution that took longer than the threshold of the recording, 100 ms unless set otherwise
+ * with {@code com.pedro.orso.outsera.SlowStatement#threshold} or {@code outsera.diagnostics.slow-statement-threshold}
+ * for the recording started by {@link ContinuousRecording}. The stack trace shows the caller.
+ */
+@Name("com.pedro.orso.outsera.SlowStatement")
+@Label("Slow Statement")
+@Category({"Outsera", "JDBC"})
+@Description("JDBC statement execution over the threshold")
+@Threshold("100 ms")
+public class SlowStatementEvent extends jdk.jfr.Event {
+
+    @Label("SQL")
+    private String sql;
+
+    @Label("Method")
+    @Description("execute, executeQuery, executeUpdate, executeBatch...")
+    private String method;
+
+    @Label("Failed")
+    private boolean failed;
+
+    /**
+     * Ends the event and commits it when it is enabled and over its threshold.
+     */
+    public void commit(String sql, String method, boolean failed) {
+        end();
+        if (shouldCommit()) {
+            this.sql = sql;
+            this.method = method;
+            this.failed = failed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.pedro.orso.outsera.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Counts the statements of a sample of the requests, {@code outsera.diagnostics.statement-budget.sample-rate}
+ * of them, and logs the ones issuing more than the budget of their endpoint, with the SQL they repeated.
+ * Budgets are set per {@code "<method> <uri template>"} under {@code outsera.diagnostics.statement-budget.endpoints},
+ * the other endpoints getting {@code outsera.diagnostics.statement-budget.default}.
+ * <p>
+ * Only statements run by the request thread are counted, not the ones of background refreshes it triggers.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class StatementBudgetFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "outsera.diagnostics.statement-budget.";
+
+    private final double sampleRate;
+    private final int defaultBudget;
+    private final Map<String, Integer> budgets;
+
+    public StatementBudgetFilter(Environment environment) {
+        Binder binder = Binder.get(environment);
+        this.sampleRate = binder.bind(PREFIX + "sample-rate", Double.class).orElse(0.0);
+        this.defaultBudget = binder.bind(PREFIX + "default", Integer.class).orElse(10);
+        this.budgets = binder.bind(PREFIX + "endpoints", Bindable.mapOf(String.class, Integer.class))
+                .orElse(Map.of());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCount count = StatementCount.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            count.close();
+        }
+        String endpoint = endpoint(request);
+        int budget = budgets.getOrDefault(endpoint, defaultBudget);
+        if (count.total() > budget) {
+            log.warn("{} ({}) issued {} statements, over its budget of {}. Repeated: {}", endpoint,
+                    request.getRequestURI(), count.total(), budget, count.repeated());
+        }
+    }
+
+    /**
+     * Key of the budget of a request, e.g. {@code GET /v1/movies/{id}}. The path when no handler matched.
+     */
+    static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,99 @@
+package com.pedro.orso.outsera.diagnostics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statements executed by the current thread from {@link #begin()} until {@link #close()}, as seen by the
+ * {@link InstrumentedDataSource}. A batch counts as one statement, it is one round trip. Counts nest: closing one
+ * adds its statements to the count it was opened in.
+ * <pre>{@code
+ * try (StatementCount count = StatementCount.begin()) {
+ *     ...
+ *     assertThat(count.total()).isLessThanOrEqualTo(3);
+ * }
+ * }</pre>
+ */
+public final class StatementCount implements AutoCloseable {
+
+    private static final ThreadLocal<StatementCount> CURRENT = new ThreadLocal<>();
+
+    private final StatementCount enclosing;
+    private final Map<String, Integer> bySql = new LinkedHashMap<>();
+    private int total;
+    private boolean closed;
+
+    private StatementCount(StatementCount enclosing) {
+        this.enclosing = enclosing;
+    }
+
+    /**
+     * Starts counting the statements of the current thread.
+     */
+    public static StatementCount begin() {
+        StatementCount count = new StatementCount(CURRENT.get());
+        CURRENT.set(count);
+        return count;
+    }
+
+    static void executed(String sql) {
+        StatementCount count = CURRENT.get();
+        if (count != null) {
+            count.add(String.valueOf(sql), 1);
+        }
+    }
+
+    private void add(String sql, int times) {
+        bySql.merge(sql, times, Integer::sum);
+        total += times;
+    }
+
+    public int total() {
+        return total;
+    }
+
+    /**
+     * Executions per SQL, in the order they were first executed.
+     */
+    public Map<String, Integer> bySql() {
+        return Collections.unmodifiableMap(bySql);
+    }
+
+    /**
+     * SQL executed more than once, the most repeated first: the usual shape of an N+1.
+     */
+    public List<Map.Entry<String, Integer>> repeated() {
+        return bySql.entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    /**
+     * Stops counting, the enclosing count if any becomes the current one again.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (CURRENT.get() != this) {
+            throw new IllegalStateException("Statement counts must be closed in the reverse order they were begun");
+        }
+        closed = true;
+        if (enclosing == null) {
+            CURRENT.remove();
+            return;
+        }
+        bySql.forEach(enclosing::add);
+        CURRENT.set(enclosing);
+    }
+
+    @Override
+    public String toString() {
+        return total + " statements " + bySql;
+    }
+}
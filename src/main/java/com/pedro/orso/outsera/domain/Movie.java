@@ -1,18 +1,31 @@
 package com.pedro.orso.outsera.domain;
 
+import com.pedro.orso.outsera.service.AwardIndexMovieListener;
+import com.pedro.orso.outsera.service.DatasetVersionEntityListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.io.Serializable;
 import java.util.List;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_movie_title_id", columnList = "title, id"),
+        @Index(name = "idx_movie_release_year", columnList = "release_year"),
+        @Index(name = "idx_movie_winner", columnList = "winner")
+})
+@EntityListeners({AwardIndexMovieListener.class, DatasetVersionEntityListener.class})
 public class Movie implements Serializable {
 
+    // Sequence ids are handed out in blocks, which lets Hibernate batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movie_seq")
+    @SequenceGenerator(name = "movie_seq", sequenceName = "movie_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "title", nullable = false)
@@ -22,27 +35,43 @@ public class Movie implements Serializable {
     @Column(name = "release_year", nullable = false)
     private int releaseYear;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "studio_id")
     private Studio studio;
 
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "movie_studio",
             joinColumns = @JoinColumn(name = "movie_id"),
-            inverseJoinColumns = @JoinColumn(name = "studio_id")
+            inverseJoinColumns = @JoinColumn(name = "studio_id"),
+            indexes = {
+                    @Index(name = "idx_movie_studio_movie", columnList = "movie_id"),
+                    @Index(name = "idx_movie_studio_studio", columnList = "studio_id")
+            }
     )
     private List<Studio> studios;
 
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
             name = "movie_producer",
             joinColumns = @JoinColumn(name = "movie_id"),
-            inverseJoinColumns = @JoinColumn(name = "producer_id")
+            inverseJoinColumns = @JoinColumn(name = "producer_id"),
+            indexes = {
+                    @Index(name = "idx_movie_producer_movie", columnList = "movie_id"),
+                    @Index(name = "idx_movie_producer_producer", columnList = "producer_id")
+            }
     )
     private List<Producer> producers;
 
     private boolean winner;
 
+    // Winner flag as last read from or written to the database, a movie that stops winning still changes intervals
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean winnerWhenLoaded;
+
 }
 
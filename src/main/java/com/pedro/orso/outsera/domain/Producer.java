@@ -1,6 +1,7 @@
 package com.pedro.orso.outsera.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.pedro.orso.outsera.service.DatasetVersionEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -11,11 +12,14 @@ import java.util.List;
 
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_producer_name_id", columnList = "name, id"))
 @NoArgsConstructor
+@EntityListeners(DatasetVersionEntityListener.class)
 public class Producer implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "producer_seq")
+    @SequenceGenerator(name = "producer_seq", sequenceName = "producer_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
@@ -0,0 +1,56 @@
+package com.pedro.orso.outsera.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.io.Serializable;
+
+/**
+ * Interval between two consecutive wins of a producer, materialized from the winning movies and refreshed
+ * producer by producer on writes. {@code gapIndex} is the position of the gap among the producer's wins, which
+ * keeps gaps of repeated years apart.
+ */
+@Data
+@Entity
+@Table(name = "producer_win_interval",
+        indexes = @Index(name = "idx_producer_win_interval_interval", columnList = "win_interval"))
+@IdClass(ProducerWinInterval.Key.class)
+@NoArgsConstructor
+public class ProducerWinInterval implements Serializable {
+
+    @Id
+    @Column(name = "producer_id")
+    private Long producerId;
+
+    @Id
+    @Column(name = "gap_index")
+    private int gapIndex;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "producer_id", insertable = false, updatable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Producer producer;
+
+    @Column(name = "win_interval", nullable = false)
+    private int interval;
+
+    @Column(name = "previous_win", nullable = false)
+    private int previousWin;
+
+    @Column(name = "following_win", nullable = false)
+    private int followingWin;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long producerId;
+        private int gapIndex;
+    }
+}
@@ -1,6 +1,7 @@
 package com.pedro.orso.outsera.domain;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.pedro.orso.outsera.service.DatasetVersionEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
@@ -11,11 +12,14 @@ import java.util.List;
 
 @Data
 @Entity
+@Table(indexes = @Index(name = "idx_studio_name_id", columnList = "name, id"))
 @NoArgsConstructor
+@EntityListeners(DatasetVersionEntityListener.class)
 public class Studio implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "studio_seq")
+    @SequenceGenerator(name = "studio_seq", sequenceName = "studio_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -0,0 +1,13 @@
+package com.pedro.orso.outsera.repository;
+
+/**
+ * A studio or producer credited on a movie.
+ */
+public interface MovieCredit {
+
+    Long getMovieId();
+
+    Long getId();
+
+    String getName();
+}
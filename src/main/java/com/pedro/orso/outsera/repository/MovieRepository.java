@@ -1,12 +1,55 @@
 package com.pedro.orso.outsera.repository;
 
 import com.pedro.orso.outsera.domain.Movie;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MovieRepository extends JpaRepository<Movie, Long> {
+public interface MovieRepository extends JpaRepository<Movie, Long>, JpaSpecificationExecutor<Movie> {
     Optional<Movie> findByTitle(String name);
+
+    List<Movie> findByTitleIn(Collection<String> titles);
+
+    Slice<Movie> findAllBy(Pageable pageable);
+
+    Slice<Movie> findAllByOrderByTitleAscIdAsc(Pageable pageable);
+
+    @Query("""
+            SELECT m FROM Movie m
+            WHERE m.title > :title OR (m.title = :title AND m.id > :id)
+            ORDER BY m.title, m.id
+            """)
+    Slice<Movie> findPageAfter(String title, Long id, Pageable pageable);
+
+    @Query("""
+            SELECT m.id AS movieId, s.id AS id, s.name AS name
+            FROM Movie m
+            JOIN m.studios s
+            WHERE m.id IN :movieIds
+            """)
+    List<MovieCredit> findStudioCredits(Collection<Long> movieIds);
+
+    @Query("""
+            SELECT m.id AS movieId, p.id AS id, p.name AS name
+            FROM Movie m
+            JOIN m.producers p
+            WHERE m.id IN :movieIds
+            """)
+    List<MovieCredit> findProducerCredits(Collection<Long> movieIds);
+
+    @Query("""
+            SELECT m.id AS movieId, m.releaseYear AS releaseYear, p.id AS producerId, p.name AS producerName
+            FROM Movie m
+            JOIN m.producers p
+            WHERE m.winner = true
+            """)
+    List<WinningCredit> findWinningCredits();
 }
@@ -1,6 +1,8 @@
 package com.pedro.orso.outsera.repository;
 
 import com.pedro.orso.outsera.domain.Producer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -12,6 +14,17 @@ import java.util.Optional;
 public interface ProducerRepository extends JpaRepository<Producer, Long> {
     Optional<Producer> findByName(String name);
 
+    Slice<Producer> findAllBy(Pageable pageable);
+
+    Slice<Producer> findAllByOrderByNameAscIdAsc(Pageable pageable);
+
+    @Query("""
+            SELECT p FROM Producer p
+            WHERE p.name > :name OR (p.name = :name AND p.id > :id)
+            ORDER BY p.name, p.id
+            """)
+    Slice<Producer> findPageAfter(String name, Long id, Pageable pageable);
+
     @Query(value = """
             WITH ProducerIntervals AS (
                 SELECT p.name AS producer_name,
@@ -0,0 +1,24 @@
+package com.pedro.orso.outsera.repository;
+
+import com.pedro.orso.outsera.domain.ProducerWinInterval;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProducerWinIntervalRepository extends JpaRepository<ProducerWinInterval, ProducerWinInterval.Key> {
+
+    @Query("""
+            SELECT w FROM ProducerWinInterval w JOIN FETCH w.producer
+            WHERE w.interval = (SELECT MIN(x.interval) FROM ProducerWinInterval x)
+            """)
+    List<ProducerWinInterval> findShortest();
+
+    @Query("""
+            SELECT w FROM ProducerWinInterval w JOIN FETCH w.producer
+            WHERE w.interval = (SELECT MAX(x.interval) FROM ProducerWinInterval x)
+            """)
+    List<ProducerWinInterval> findLongest();
+}
@@ -1,7 +1,10 @@
 package com.pedro.orso.outsera.repository;
 
 import com.pedro.orso.outsera.domain.Studio;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +12,15 @@ import java.util.Optional;
 @Repository
 public interface StudioRepository extends JpaRepository<Studio, Long> {
     Optional<Studio> findByName(String name);
+
+    Slice<Studio> findAllBy(Pageable pageable);
+
+    Slice<Studio> findAllByOrderByNameAscIdAsc(Pageable pageable);
+
+    @Query("""
+            SELECT s FROM Studio s
+            WHERE s.name > :name OR (s.name = :name AND s.id > :id)
+            ORDER BY s.name, s.id
+            """)
+    Slice<Studio> findPageAfter(String name, Long id, Pageable pageable);
 }
@@ -0,0 +1,15 @@
+package com.pedro.orso.outsera.repository;
+
+/**
+ * One producer credit on a winning movie.
+ */
+public interface WinningCredit {
+
+    Long getMovieId();
+
+    int getReleaseYear();
+
+    Long getProducerId();
+
+    String getProducerName();
+}
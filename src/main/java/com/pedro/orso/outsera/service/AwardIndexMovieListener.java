@@ -0,0 +1,68 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.domain.Movie;
+import com.pedro.orso.outsera.domain.Producer;
+import com.pedro.orso.outsera.service.award.ProducerWinIntervalRefresher;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreRemove;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the {@link AwardIntervalIndex} and the materialized producer win intervals in sync with movies written
+ * outside of {@link MovieService}, e.g. straight through the repositories. Only movies that win, or won before the
+ * write, can change an interval, so the producers of the others are never refreshed.
+ */
+@Component
+@RequiredArgsConstructor
+public class AwardIndexMovieListener {
+
+    private final AwardIntervalIndex awardIntervalIndex;
+    // Looked up on first use, the refresher needs the entity manager factory this listener is created with
+    private final ObjectProvider<ProducerWinIntervalRefresher> producerWinIntervalRefresher;
+
+    @PostLoad
+    public void onLoad(Movie movie) {
+        movie.setWinnerWhenLoaded(movie.isWinner());
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Movie movie) {
+        // Producers not loaded means they did not change in this flush, MovieService handles the rest
+        if (movie.getProducers() == null || Hibernate.isInitialized(movie.getProducers())) {
+            awardIntervalIndex.upsert(movie);
+            if (movie.isWinner() || movie.isWinnerWhenLoaded()) {
+                producerWinIntervalRefresher.getObject().touch(producerIds(movie));
+            }
+            movie.setWinnerWhenLoaded(movie.isWinner());
+        }
+    }
+
+    // Before the removal, while the producers of the movie can still be read
+    @PreRemove
+    public void onRemoving(Movie movie) {
+        if (movie.isWinner() || movie.isWinnerWhenLoaded()) {
+            producerWinIntervalRefresher.getObject().touch(producerIds(movie));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Movie movie) {
+        awardIntervalIndex.remove(movie.getId());
+    }
+
+    private static List<Long> producerIds(Movie movie) {
+        if (movie.getProducers() == null) {
+            return List.of();
+        }
+        return movie.getProducers().stream().map(Producer::getId).toList();
+    }
+}
@@ -0,0 +1,332 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.domain.Movie;
+import com.pedro.orso.outsera.domain.Producer;
+import com.pedro.orso.outsera.repository.WinningCredit;
+import com.pedro.orso.outsera.service.award.AwardIntervalEngine;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of the winning years of each producer.
+ * <p>
+ * Every gap between two consecutive wins of a producer is kept in a {@link TreeMap} keyed by its length, so the
+ * global min and max intervals are always the first and last keys and a read only walks the tied entries.
+ * The index is built once by {@link AwardService#rebuildIndex()} and then kept up to date movie by movie.
+ * <p>
+ * Top-k and year window queries go through an {@link IntervalRangeTree} over the same gaps. The tree is static,
+ * so it is rebuilt on the first such query after a change instead of on every write.
+ */
+@Slf4j
+@Component
+public class AwardIntervalIndex {
+
+    private static final Comparator<ProducerIntervalDTO> SHORTEST_FIRST = Comparator
+            .comparingInt(ProducerIntervalDTO::getInterval)
+            .thenComparing(AwardIntervalEngine.RESULT_ORDER);
+
+    private static final Comparator<ProducerIntervalDTO> LONGEST_FIRST = Comparator
+            .comparingInt(ProducerIntervalDTO::getInterval).reversed()
+            .thenComparing(AwardIntervalEngine.RESULT_ORDER);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Winning movies currently indexed, so an update or delete can take its previous contribution back
+    private final Map<Long, WinningMovie> winningMovies = new HashMap<>();
+
+    // Sorted winning years of each producer, duplicates included
+    private final Map<Long, List<Integer>> winningYears = new HashMap<>();
+
+    private final Map<Long, String> producerNames = new HashMap<>();
+
+    // interval -> producer id -> gaps of that length
+    private final TreeMap<Integer, Map<Long, List<Gap>>> gapsByInterval = new TreeMap<>();
+
+    // Bumped by every change to the gaps, tells whether the range tree is still current
+    private long modifications;
+    private volatile RangeSnapshot rangeSnapshot;
+
+    private volatile boolean initialized;
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * Replaces the whole index with the given winning credits.
+     */
+    public void rebuild(Collection<WinningCredit> credits) {
+        lock.writeLock().lock();
+        try {
+            winningMovies.clear();
+            winningYears.clear();
+            producerNames.clear();
+            gapsByInterval.clear();
+
+            Map<Long, WinningMovie> movies = new LinkedHashMap<>();
+            for (WinningCredit credit : credits) {
+                movies.computeIfAbsent(credit.getMovieId(), id -> new WinningMovie(id, credit.getReleaseYear(), new ArrayList<>()))
+                        .producers().add(new ProducerRef(credit.getProducerId(), credit.getProducerName()));
+            }
+            for (WinningMovie movie : movies.values()) {
+                winningMovies.put(movie.movieId(), movie);
+                for (ProducerRef producer : movie.producers()) {
+                    producerNames.put(producer.id(), producer.name());
+                    List<Integer> years = winningYears.computeIfAbsent(producer.id(), id -> new ArrayList<>());
+                    years.add(movie.releaseYear());
+                }
+            }
+            for (Map.Entry<Long, List<Integer>> entry : winningYears.entrySet()) {
+                Collections.sort(entry.getValue());
+                addGaps(entry.getKey(), entry.getValue());
+            }
+            modifications++;
+            initialized = true;
+            log.info("Award interval index built with {} winning movies and {} producers",
+                    winningMovies.size(), winningYears.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registers the current state of a movie, replacing whatever it contributed before.
+     * Applied once the surrounding transaction commits, or right away when there is none.
+     */
+    public void upsert(Movie movie) {
+        if (!initialized || movie.getId() == null) {
+            return;
+        }
+        WinningMovie snapshot = movie.isWinner() ? WinningMovie.of(movie) : null;
+        Long movieId = movie.getId();
+        afterCommit(() -> apply(movieId, snapshot));
+    }
+
+    /**
+     * Removes whatever the movie contributed to the index.
+     */
+    public void remove(Long movieId) {
+        if (!initialized || movieId == null) {
+            return;
+        }
+        afterCommit(() -> apply(movieId, null));
+    }
+
+    public void renameProducer(Long producerId, String name) {
+        if (!initialized || producerId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                producerNames.computeIfPresent(producerId, (id, oldName) -> name);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Producers tied for the shortest and the longest interval between two consecutive wins.
+     * Costs O(result size), no database access.
+     */
+    public ProducerIntervalResponseDTO getMinAndMaxIntervals() {
+        lock.readLock().lock();
+        try {
+            ProducerIntervalResponseDTO response = new ProducerIntervalResponseDTO();
+            if (gapsByInterval.isEmpty()) {
+                response.setMin(Collections.emptyList());
+                response.setMax(Collections.emptyList());
+                return response;
+            }
+            response.setMin(toDtos(gapsByInterval.firstEntry().getValue()));
+            response.setMax(toDtos(gapsByInterval.lastEntry().getValue()));
+            return response;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The {@code top} shortest and longest intervals whose both wins fall in {@code [fromYear, toYear]}, ties with
+     * the last one included. {@code top = 1} over all years gives the same result as {@link #getMinAndMaxIntervals()}.
+     * Costs O((log n + top) log n) once the range tree is current.
+     */
+    public ProducerIntervalResponseDTO getIntervals(int top, int fromYear, int toYear) {
+        lock.readLock().lock();
+        try {
+            RangeSnapshot snapshot = rangeSnapshot;
+            if (snapshot == null || snapshot.modifications() != modifications) {
+                // Concurrent readers may build it twice, both copies are identical
+                snapshot = buildRangeSnapshot();
+                rangeSnapshot = snapshot;
+            }
+            ProducerIntervalResponseDTO response = new ProducerIntervalResponseDTO();
+            response.setMin(toDtos(snapshot.gaps(), snapshot.tree().shortest(fromYear, toYear, top), SHORTEST_FIRST));
+            response.setMax(toDtos(snapshot.gaps(), snapshot.tree().longest(fromYear, toYear, top), LONGEST_FIRST));
+            return response;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RangeSnapshot buildRangeSnapshot() {
+        List<Gap> gaps = new ArrayList<>();
+        for (Map<Long, List<Gap>> byProducer : gapsByInterval.values()) {
+            for (List<Gap> producerGaps : byProducer.values()) {
+                gaps.addAll(producerGaps);
+            }
+        }
+        int[] previousWins = new int[gaps.size()];
+        int[] followingWins = new int[gaps.size()];
+        for (int i = 0; i < gaps.size(); i++) {
+            previousWins[i] = gaps.get(i).previousWin();
+            followingWins[i] = gaps.get(i).followingWin();
+        }
+        return new RangeSnapshot(modifications, gaps, new IntervalRangeTree(previousWins, followingWins));
+    }
+
+    private void apply(Long movieId, WinningMovie current) {
+        lock.writeLock().lock();
+        try {
+            modifications++;
+            WinningMovie previous = winningMovies.remove(movieId);
+            if (previous != null) {
+                for (ProducerRef producer : previous.producers()) {
+                    List<Integer> years = winningYears.get(producer.id());
+                    if (years == null) {
+                        continue;
+                    }
+                    removeGaps(producer.id(), years);
+                    years.remove(Integer.valueOf(previous.releaseYear()));
+                    if (years.isEmpty()) {
+                        winningYears.remove(producer.id());
+                        producerNames.remove(producer.id());
+                    } else {
+                        addGaps(producer.id(), years);
+                    }
+                }
+            }
+            if (current != null) {
+                winningMovies.put(movieId, current);
+                for (ProducerRef producer : current.producers()) {
+                    producerNames.put(producer.id(), producer.name());
+                    List<Integer> years = winningYears.computeIfAbsent(producer.id(), id -> new ArrayList<>());
+                    removeGaps(producer.id(), years);
+                    int position = Collections.binarySearch(years, current.releaseYear());
+                    years.add(position < 0 ? -position - 1 : position, current.releaseYear());
+                    addGaps(producer.id(), years);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addGaps(Long producerId, List<Integer> years) {
+        for (int i = 1; i < years.size(); i++) {
+            Gap gap = new Gap(producerId, years.get(i - 1), years.get(i));
+            gapsByInterval.computeIfAbsent(gap.interval(), interval -> new HashMap<>())
+                    .computeIfAbsent(producerId, id -> new ArrayList<>())
+                    .add(gap);
+        }
+    }
+
+    private void removeGaps(Long producerId, List<Integer> years) {
+        for (int i = 1; i < years.size(); i++) {
+            int interval = years.get(i) - years.get(i - 1);
+            Map<Long, List<Gap>> byProducer = gapsByInterval.get(interval);
+            if (byProducer == null) {
+                continue;
+            }
+            byProducer.remove(producerId);
+            if (byProducer.isEmpty()) {
+                gapsByInterval.remove(interval);
+            }
+        }
+    }
+
+    private List<ProducerIntervalDTO> toDtos(Map<Long, List<Gap>> byProducer) {
+        List<ProducerIntervalDTO> dtos = new ArrayList<>();
+        for (List<Gap> gaps : byProducer.values()) {
+            for (Gap gap : gaps) {
+                dtos.add(toDto(gap));
+            }
+        }
+        dtos.sort(AwardIntervalEngine.RESULT_ORDER);
+        return dtos;
+    }
+
+    private List<ProducerIntervalDTO> toDtos(List<Gap> gaps, int[] positions, Comparator<ProducerIntervalDTO> order) {
+        List<ProducerIntervalDTO> dtos = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            dtos.add(toDto(gaps.get(position)));
+        }
+        dtos.sort(order);
+        return dtos;
+    }
+
+    private ProducerIntervalDTO toDto(Gap gap) {
+        ProducerIntervalDTO dto = new ProducerIntervalDTO();
+        dto.setProducer(producerNames.get(gap.producerId()));
+        dto.setInterval(gap.interval());
+        dto.setPreviousWin(gap.previousWin());
+        dto.setFollowingWin(gap.followingWin());
+        return dto;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private record ProducerRef(Long id, String name) {
+    }
+
+    private record WinningMovie(Long movieId, int releaseYear, List<ProducerRef> producers) {
+
+        static WinningMovie of(Movie movie) {
+            List<ProducerRef> producers = new ArrayList<>();
+            if (movie.getProducers() != null) {
+                for (Producer producer : movie.getProducers()) {
+                    producers.add(new ProducerRef(producer.getId(), producer.getName()));
+                }
+            }
+            return new WinningMovie(movie.getId(), movie.getReleaseYear(), producers);
+        }
+    }
+
+    private record RangeSnapshot(long modifications, List<Gap> gaps, IntervalRangeTree tree) {
+    }
+
+    private record Gap(Long producerId, int previousWin, int followingWin) {
+
+        int interval() {
+            return followingWin - previousWin;
+        }
+    }
+}
@@ -1,68 +1,264 @@
 package com.pedro.orso.outsera.service;
 
-import com.pedro.orso.outsera.repository.ProducerRepository;
-import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalDTO;
+import com.pedro.orso.outsera.diagnostics.AwardComputationEvent;
+import com.pedro.orso.outsera.repository.MovieRepository;
+import com.pedro.orso.outsera.service.award.AwardIntervalEngine;
 import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class AwardService {
 
-    private final ProducerRepository producerRepository;
+    /**
+     * Engine name of the in-memory {@link AwardIntervalIndex}, the default.
+     */
+    public static final String INDEX_ENGINE = "index";
+
+    private static final long NOT_STALE = Long.MIN_VALUE;
+
+    private final MovieRepository movieRepository;
+    private final AwardIntervalIndex awardIntervalIndex;
+    private final List<AwardIntervalEngine> engines;
+    private final DatasetVersion datasetVersion;
+    private final MeterRegistry meterRegistry;
+
+    // Concurrent identical requests share one computation. Keys hold the dataset version, so a request never gets
+    // a result computed before a write it already saw committed.
+    private final SingleFlight<Object, ProducerIntervalResponseDTO> singleFlight;
+
+    /**
+     * How min and max intervals are computed: {@code index}, or the {@link AwardIntervalEngine#name()} of an engine.
+     */
+    @Value("${outsera.awards.engine:index}")
+    private String engineName;
+
+    /**
+     * How long after a write the previous min and max result may still be served while it is recomputed in the
+     * background. Past that, readers wait for the new one. {@code 0} always waits.
+     */
+    @Value("${outsera.awards.max-staleness:5s}")
+    private Duration maxStaleness;
+
+    private AwardIntervalEngine engine;
+    private Timer minAndMaxTimer;
+    private Timer windowTimer;
+    private Timer rebuildTimer;
+
+    // Last min and max result with the dataset version it was computed for
+    private final AtomicReference<CachedIntervals> cachedIntervals = new AtomicReference<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final Lock rebuildLock = new ReentrantLock();
+
+    public AwardService(MovieRepository movieRepository, AwardIntervalIndex awardIntervalIndex,
+                        List<AwardIntervalEngine> engines, DatasetVersion datasetVersion, MeterRegistry meterRegistry) {
+        this.movieRepository = movieRepository;
+        this.awardIntervalIndex = awardIntervalIndex;
+        this.engines = engines;
+        this.datasetVersion = datasetVersion;
+        this.meterRegistry = meterRegistry;
+        this.singleFlight = new SingleFlight<>("award-intervals", meterRegistry);
+    }
+
+    @PostConstruct
+    void selectEngine() {
+        minAndMaxTimer = computationTimer(engineName, "min-max");
+        windowTimer = computationTimer(INDEX_ENGINE, "top");
+        rebuildTimer = Timer.builder("outsera.awards.index.rebuild")
+                .description("Award interval index builds from the database")
+                .register(meterRegistry);
+        datasetVersion.onChange(this::markStale);
+        if (INDEX_ENGINE.equals(engineName)) {
+            return;
+        }
+        engine = engines.stream()
+                .filter(candidate -> candidate.name().equals(engineName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown award interval engine '" + engineName
+                        + "', expected " + INDEX_ENGINE + " or one of "
+                        + engines.stream().map(AwardIntervalEngine::name).toList()));
+        log.info("Award intervals computed by the {} engine", engineName);
+    }
+
+    private Timer computationTimer(String engine, String query) {
+        return Timer.builder("outsera.awards.computation")
+                .description("Award interval computations, coalesced and stale reads excluded")
+                .tag("engine", engine)
+                .tag("query", query)
+                .register(meterRegistry);
+    }
 
     public ProducerIntervalResponseDTO getProducersWithMinAndMaxInterval() {
-        List<Object[]> results = producerRepository.getProducersWithMinAndMaxIntervals();
+        return getMinAndMaxIntervals().response();
+    }
 
-        List<ProducerIntervalDTO> minIntervals = new ArrayList<>();
-        List<ProducerIntervalDTO> maxIntervals = new ArrayList<>();
+    /**
+     * Min and max intervals, served stale while they are recomputed in the background for at most
+     * {@code outsera.awards.max-staleness} after the dataset changed.
+     */
+    public VersionedIntervals getMinAndMaxIntervals() {
+        long version = datasetVersion.current();
+        CachedIntervals cached = cachedIntervals.get();
+        if (cached != null && cached.version() == version) {
+            return new VersionedIntervals(cached.response(), cached.version(), true, 0);
+        }
+        if (cached != null) {
+            long staleNanos = cached.staleFor(System.nanoTime(), datasetVersion.changedAt());
+            if (staleNanos < maxStaleness.toNanos()) {
+                refreshInBackground();
+                return new VersionedIntervals(cached.response(), cached.version(), false,
+                        TimeUnit.NANOSECONDS.toMillis(staleNanos));
+            }
+        }
+        CachedIntervals computed = recompute(version);
+        return new VersionedIntervals(computed.response(), computed.version(), computed.version() == version, 0);
+    }
 
-        if (results.isEmpty()) {
-            ProducerIntervalResponseDTO producerIntervalResponseDTO = new ProducerIntervalResponseDTO();
-            producerIntervalResponseDTO.setMin(Collections.emptyList());
-            producerIntervalResponseDTO.setMax(Collections.emptyList());
+    /**
+     * Starts the staleness clock of the last result at the first write it misses, not at the first reader noticing.
+     */
+    private void markStale() {
+        CachedIntervals cached = cachedIntervals.get();
+        if (cached != null) {
+            cached.markStale(System.nanoTime());
         }
+    }
 
-        Integer minInterval = null;
-        Integer maxInterval = null;
-
-        for (Object[] row : results) {
-            String producerName = (String) row[0];
-            Integer interval = (Integer) row[1];
-            Integer previousWin = (Integer) row[2];
-            Integer followingWin = (Integer) row[3];
-
-            ProducerIntervalDTO dto = new ProducerIntervalDTO();
-            dto.setProducer(producerName);
-            dto.setInterval(interval);
-            dto.setPreviousWin(previousWin);
-            dto.setFollowingWin(followingWin);
-
-            if (minInterval == null || interval < minInterval) {
-                minInterval = interval;
-                minIntervals.clear();
-                minIntervals.add(dto);
-            } else if (interval.equals(minInterval)) {
-                minIntervals.add(dto);
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("award-intervals-refresh").start(() -> {
+            try {
+                recompute(datasetVersion.current());
+            } catch (RuntimeException e) {
+                log.warn("Could not refresh the award intervals in the background", e);
+            } finally {
+                refreshing.set(false);
             }
+        });
+    }
+
+    /**
+     * Computes the result for {@code version}, sharing the work with concurrent readers and the background refresh.
+     * The version is read before computing, so the result is at least as recent as the version it is tagged with.
+     */
+    private CachedIntervals recompute(long version) {
+        ProducerIntervalResponseDTO response = singleFlight.execute(new IntervalQuery(version, 0, null, null),
+                () -> computeMinAndMaxInterval(version));
+        CachedIntervals computed = new CachedIntervals(version, response, new AtomicLong(NOT_STALE));
+        // A slower computation for an older version never replaces a newer result
+        CachedIntervals installed = cachedIntervals.accumulateAndGet(computed, (current, candidate) ->
+                current == null || current.version() < candidate.version() ? candidate : current);
+        // A write committed while computing already missed this result when it was installed
+        if (installed.version() != datasetVersion.current()) {
+            installed.markStale(datasetVersion.changedAt());
+        }
+        return installed;
+    }
 
-            if (maxInterval == null || interval > maxInterval) {
-                maxInterval = interval;
-                maxIntervals.clear();
-                maxIntervals.add(dto);
-            } else if (interval.equals(maxInterval)) {
-                maxIntervals.add(dto);
+    private ProducerIntervalResponseDTO computeMinAndMaxInterval(long version) {
+        AwardComputationEvent event = new AwardComputationEvent();
+        event.begin();
+        long[] rowsScanned = new long[1];
+        ProducerIntervalResponseDTO response = minAndMaxTimer.record(() -> {
+            if (engine != null) {
+                return engine.getMinAndMaxIntervals(rows -> rowsScanned[0] += rows);
             }
+            if (!awardIntervalIndex.isInitialized()) {
+                rebuildIndex();
+            }
+            ProducerIntervalResponseDTO intervals = awardIntervalIndex.getMinAndMaxIntervals();
+            // The index only walks the ties it returns
+            rowsScanned[0] = intervals.getMin().size() + intervals.getMax().size();
+            return intervals;
+        });
+        event.commit(engineName, "min-max", version, rowsScanned[0], response);
+        return response;
+    }
+
+    /**
+     * The {@code top} shortest and longest intervals with both wins between {@code fromYear} and {@code toYear},
+     * ties included. Open ends when the years are {@code null}. Always served by the index.
+     */
+    public ProducerIntervalResponseDTO getProducerIntervals(int top, Integer fromYear, Integer toYear) {
+        long version = datasetVersion.current();
+        return singleFlight.execute(new IntervalQuery(version, top, fromYear, toYear), () -> {
+            AwardComputationEvent event = new AwardComputationEvent();
+            event.begin();
+            ProducerIntervalResponseDTO response = windowTimer.record(() -> {
+                if (!awardIntervalIndex.isInitialized()) {
+                    rebuildIndex();
+                }
+                return awardIntervalIndex.getIntervals(top,
+                        fromYear == null ? Integer.MIN_VALUE : fromYear,
+                        toYear == null ? Integer.MAX_VALUE : toYear);
+            });
+            event.commit(INDEX_ENGINE, "top", version, response.getMin().size() + response.getMax().size(),
+                    response);
+            return response;
+        });
+    }
+
+    /**
+     * (Re)builds the award interval index from the winning credits currently in the database.
+     */
+    @Transactional(readOnly = true)
+    public void rebuildIndex() {
+        // A lock rather than synchronized, a virtual thread waiting for the query must not pin its carrier
+        rebuildLock.lock();
+        try {
+            rebuildTimer.record(() -> awardIntervalIndex.rebuild(movieRepository.findWinningCredits()));
+        } finally {
+            rebuildLock.unlock();
         }
-        ProducerIntervalResponseDTO producerIntervalResponseDTO = new ProducerIntervalResponseDTO();
-        producerIntervalResponseDTO.setMax(maxIntervals);
-        producerIntervalResponseDTO.setMin(minIntervals);
+    }
+
+    // top = 0 stands for the plain min and max query
+    private record IntervalQuery(long version, int top, Integer fromYear, Integer toYear) {
+    }
+
+    /**
+     * Min and max intervals with the dataset version they were computed for, which is older than the current one
+     * when {@code fresh} is {@code false}.
+     *
+     * @param staleMillis time since the first write the response misses was committed, 0 when fresh.
+     */
+    public record VersionedIntervals(ProducerIntervalResponseDTO response, long version, boolean fresh,
+                                     long staleMillis) {
+    }
 
-        return producerIntervalResponseDTO;
+    private record CachedIntervals(long version, ProducerIntervalResponseDTO response, AtomicLong staleSince) {
+
+        /**
+         * Records {@code changedAt} as the moment this result went stale, unless an earlier one is already known.
+         */
+        void markStale(long changedAt) {
+            staleSince.compareAndSet(NOT_STALE, changedAt);
+        }
+
+        /**
+         * Time since the first write this result misses. {@code changedAt} stands in for it when the write has
+         * not been recorded yet, its commit still running the version listeners.
+         */
+        long staleFor(long now, long changedAt) {
+            markStale(changedAt);
+            return now - staleSince.get();
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,147 +1,78 @@
 package com.pedro.orso.outsera.service;
 
-import com.opencsv.CSVParserBuilder;
-import com.opencsv.CSVReaderBuilder;
-import com.pedro.orso.outsera.domain.Movie;
-import com.pedro.orso.outsera.domain.Producer;
-import com.pedro.orso.outsera.domain.Studio;
-import com.pedro.orso.outsera.repository.MovieRepository;
-import com.pedro.orso.outsera.repository.ProducerRepository;
-import com.pedro.orso.outsera.repository.StudioRepository;
+import com.pedro.orso.outsera.service.award.ProducerWinIntervalRefresher;
+import com.pedro.orso.outsera.service.loader.CsvIngestionPipeline;
+import com.pedro.orso.outsera.service.loader.DatasetSnapshotStore;
+import com.pedro.orso.outsera.service.loader.DatasetSnapshotStore.SourceFingerprint;
+import com.pedro.orso.outsera.service.loader.LoadReport;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.nio.file.Path;
 
 @Slf4j
 @Component
 public class DataLoader implements CommandLineRunner {
 
     @Autowired
-    private MovieRepository movieRepository;
+    private CsvIngestionPipeline csvIngestionPipeline;
 
     @Autowired
-    private ProducerRepository producerRepository;
+    private DatasetSnapshotStore datasetSnapshotStore;
 
     @Autowired
-    private StudioRepository studioRepository;
+    private AwardService awardService;
 
-    @Override
-    @Transactional
-    public void run(String... args) throws Exception {
-
-        try (InputStreamReader reader = new InputStreamReader(new ClassPathResource("movielist.csv").getInputStream())) {
-            CSVParserBuilder parserBuilder = new CSVParserBuilder();
-            parserBuilder.withSeparator(';');
-
-            CSVReaderBuilder readerBuilder = new CSVReaderBuilder(reader);
-            readerBuilder.withCSVParser(parserBuilder.build());
-            // Skipping the headers
-            readerBuilder.withSkipLines(1);
-
-            try (var csvReader = readerBuilder.build()) {
-                String[] values;
-
-                while ((values = csvReader.readNext()) != null) {
-                    // Checking if it has all values
-                    if (values.length < 5) {
-                        continue;
-                    }
-
-                    String yearValue = values[0];
-                    String titleValue = values[1];
-                    String studiosValue = values[2];
-                    String producersValue = values[3];
-                    String winnerValue = values[4];
-
-                    int year = Integer.parseInt(yearValue.trim());
-                    boolean winner = "yes".equalsIgnoreCase(winnerValue.trim());
-
-                    // Studios
-                    List<Studio> studiosList = processStudios(studiosValue);
-
-                    // Producers
-                    List<Producer> producersList = processProducers(producersValue);
-
-                    Movie movie = new Movie();
-                    movie.setTitle(titleValue.trim());
-                    movie.setReleaseYear(year);
-                    movie.setStudios(studiosList);
-                    movie.setProducers(producersList);
-                    movie.setWinner(winner);
+    @Autowired
+    private ProducerWinIntervalRefresher producerWinIntervalRefresher;
 
-                    movieRepository.save(movie);
-                    log.debug("Saved movie: {}", movie.getTitle());
-                }
-            }
-        }
-    }
+    @Autowired
+    private DatasetVersion datasetVersion;
 
-    private List<Producer> processProducers(String producersValue) {
-        List<Producer> producers = new ArrayList<>();
-        String[] producerNames = producersValue.split(",| and ");
-        for (String producerName : producerNames) {
-            String trimmedName = producerName.trim();
-            if (trimmedName.isEmpty()) {
-                continue;
-            }
+    /**
+     * Movie list to load, {@code classpath:} or {@code file:} location.
+     */
+    @Value("${outsera.loader.source:classpath:movielist.csv}")
+    private Resource source;
 
-            // Handle multiple producers separated by ' and ' as well
-            String[] subProducerNames = trimmedName.split(" and ");
-            for (String subProducerName : subProducerNames) {
-                String finalName = subProducerName.trim();
-                if (finalName.isEmpty()) {
-                    continue;
-                }
+    /**
+     * Where the binary snapshot of the loaded dataset is kept, empty to always parse the movie list.
+     */
+    @Value("${outsera.loader.snapshot.path:}")
+    private String snapshotPath;
 
-                Optional<Producer> optionalProducer = producerRepository.findByName(finalName);
-                Producer producer;
-                if (optionalProducer.isPresent()) {
-                    producer = optionalProducer.get();
-                    log.debug("Found existing producer: {}", producer.getName());
-                } else {
-                    Producer newProducer = new Producer();
-                    newProducer.setName(finalName);
-                    producer = producerRepository.save(newProducer);
-                    log.debug("Created new Producer: {}", producer.getName());
-                }
-                producers.add(producer);
+    @Override
+    public void run(String... args) throws Exception {
+        long start = System.nanoTime();
+        Path snapshot = StringUtils.hasText(snapshotPath) ? Path.of(snapshotPath) : null;
+        SourceFingerprint fingerprint = snapshot != null ? datasetSnapshotStore.fingerprint(source) : null;
+
+        if (snapshot != null && datasetSnapshotStore.restore(snapshot, fingerprint)) {
+            log.info("Restored dataset of {} from snapshot {} in {} ms",
+                    source.getDescription(), snapshot, (System.nanoTime() - start) / 1_000_000);
+        } else {
+            LoadReport report = csvIngestionPipeline.load(source);
+
+            log.info("Loaded {} movies, {} producers and {} studios from {} in {} ms ({} rows/s, {} rejected rows, {} failed chunks)",
+                    report.rows(), report.producers(), report.studios(), source.getDescription(), report.elapsedMillis(),
+                    report.rowsPerSecond(), report.rejectedRows(), report.failedChunks());
+
+            // A partial load is not worth keeping, the next start should try the movie list again
+            if (snapshot != null && report.failedChunks() == 0) {
+                datasetSnapshotStore.write(snapshot, fingerprint);
+                log.info("Wrote dataset snapshot {}", snapshot);
             }
         }
-        return producers;
-    }
 
-    private List<Studio> processStudios(String studiosValue) {
-        List<Studio> studios = new ArrayList<>();
-        String[] studioNames = studiosValue.split(",");
-        for (String studioName : studioNames) {
-            String trimmedName = studioName.trim();
-            if (trimmedName.isEmpty()) {
-                continue;
-            }
-
-            Optional<Studio> optionalStudio = studioRepository.findByName(trimmedName);
-            Studio studio;
-
-            if (optionalStudio.isPresent()) {
-                studio = optionalStudio.get();
-                log.debug("Found existing studio: {}", studio.getName());
-            } else {
-                Studio newStudio = new Studio();
-                newStudio.setName(trimmedName);
-                studio = studioRepository.save(newStudio);
-                log.debug("Created new studio: {}", studio.getName());
-            }
-
-            studios.add(studio);
-        }
-        return studios;
+        // Snapshots are inserted straight into the tables, and a file-backed database may hold movies written while
+        // the table was not maintained: rebuilt once here, then kept up to date by the writes
+        producerWinIntervalRefresher.refreshAll();
+        awardService.rebuildIndex();
+        datasetVersion.bump();
     }
-}
\ No newline at end of file
+}
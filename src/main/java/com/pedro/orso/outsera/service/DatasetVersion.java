@@ -0,0 +1,89 @@
+package com.pedro.orso.outsera.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the whole dataset, bumped by every write to movies, producers or studios and used as the ETag of
+ * the read endpoints: an unchanged version means an unchanged response for the same request.
+ * <p>
+ * It starts from the boot time so versions handed out before a restart are not reused after it, and is bumped
+ * only once the write is committed, so a response tagged with a version always contains that version's data.
+ */
+@Component
+public class DatasetVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    // System.nanoTime() of the last bump
+    private volatile long changedAt = System.nanoTime();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * {@link System#nanoTime()} at which the current version was reached.
+     */
+    public long changedAt() {
+        return changedAt;
+    }
+
+    /**
+     * Runs {@code listener} right after every bump, on the thread that committed the write.
+     */
+    public void onChange(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * ETag of the current version. Weak, the same version is sent as identity or gzip encoded bodies.
+     */
+    public String etag() {
+        return etag(version.get());
+    }
+
+    /**
+     * Weak ETag of the given version, for responses built from data of an older version.
+     */
+    public static String etag(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    /**
+     * Moves to a new version, once the surrounding transaction commits or right away when there is none. A
+     * transaction bumping several times, e.g. once per entity written, still moves only one version ahead.
+     */
+    public void bump() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(this)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DatasetVersion.this);
+            }
+        });
+    }
+
+    private void increment() {
+        changedAt = System.nanoTime();
+        version.incrementAndGet();
+        listeners.forEach(Runnable::run);
+    }
+}
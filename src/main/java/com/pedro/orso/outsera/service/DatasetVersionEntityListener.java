@@ -0,0 +1,27 @@
+package com.pedro.orso.outsera.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps the {@link DatasetVersion} for movies, producers and studios written outside of the services, e.g. straight
+ * through the repositories, so cached results and ETags of the read endpoints do not outlive the write.
+ * <p>
+ * Changing only the credits of a movie does not fire {@code @PostUpdate}; {@link MovieService} bumps for those.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatasetVersionEntityListener {
+
+    private final DatasetVersion datasetVersion;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        datasetVersion.bump();
+    }
+}
@@ -0,0 +1,213 @@
+package com.pedro.orso.outsera.service;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Static range index over win intervals, answering "the k shortest (or longest) intervals whose both wins fall in
+ * {@code [fromYear, toYear]}" without scanning the window.
+ * <p>
+ * Intervals are ordered by previous win, so the window start and end bound a range of positions. Each node of a
+ * segment tree over that order keeps the following wins of its intervals sorted, with the running min and max
+ * interval along them: one binary search on {@code toYear} gives the best interval of the node that also ends
+ * inside the window. The k best are then taken best-first from the O(log n) nodes covering the range, which costs
+ * O((log n + k) log n) whatever the size of the window.
+ * <p>
+ * Immutable once built, safe to share between threads.
+ */
+final class IntervalRangeTree {
+
+    private final int size;
+
+    // Original position and wins of each interval, ordered by previous win
+    private final int[] positions;
+    private final int[] previousWins;
+
+    // Per node: following wins in ascending order and the min / max interval of each prefix
+    private final int[][] followingWins;
+    private final int[][] prefixMin;
+    private final int[][] prefixMax;
+
+    IntervalRangeTree(int[] previousWins, int[] followingWins) {
+        this.size = previousWins.length;
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> previousWins[a] != previousWins[b]
+                ? Integer.compare(previousWins[a], previousWins[b])
+                : Integer.compare(followingWins[a], followingWins[b]));
+
+        this.positions = new int[size];
+        this.previousWins = new int[size];
+        int[] sortedFollowingWins = new int[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = order[i];
+            this.previousWins[i] = previousWins[order[i]];
+            sortedFollowingWins[i] = followingWins[order[i]];
+        }
+
+        int nodes = size == 0 ? 1 : 4 * size;
+        this.followingWins = new int[nodes][];
+        this.prefixMin = new int[nodes][];
+        this.prefixMax = new int[nodes][];
+        if (size > 0) {
+            build(1, 0, size, sortedFollowingWins);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the original positions of the {@code k} shortest intervals inside the window, plus those tied
+     * with the k-th, shortest first.
+     */
+    int[] shortest(int fromYear, int toYear, int k) {
+        return best(fromYear, toYear, k, true);
+    }
+
+    /**
+     * @return the original positions of the {@code k} longest intervals inside the window, plus those tied
+     * with the k-th, longest first.
+     */
+    int[] longest(int fromYear, int toYear, int k) {
+        return best(fromYear, toYear, k, false);
+    }
+
+    /**
+     * Merge sort of the node's (following win, previous win) pairs, packed in longs so they sort by following win.
+     */
+    private long[] build(int node, int from, int to, int[] sortedFollowingWins) {
+        long[] wins;
+        if (to - from == 1) {
+            wins = new long[]{((long) sortedFollowingWins[from] << 32) | (previousWins[from] & 0xffffffffL)};
+        } else {
+            int middle = (from + to) >>> 1;
+            wins = merge(build(2 * node, from, middle, sortedFollowingWins),
+                    build(2 * node + 1, middle, to, sortedFollowingWins));
+        }
+
+        int[] following = new int[wins.length];
+        int[] min = new int[wins.length];
+        int[] max = new int[wins.length];
+        for (int i = 0; i < wins.length; i++) {
+            following[i] = (int) (wins[i] >> 32);
+            int interval = following[i] - (int) wins[i];
+            min[i] = i == 0 ? interval : Math.min(min[i - 1], interval);
+            max[i] = i == 0 ? interval : Math.max(max[i - 1], interval);
+        }
+        followingWins[node] = following;
+        prefixMin[node] = min;
+        prefixMax[node] = max;
+        return wins;
+    }
+
+    private int[] best(int fromYear, int toYear, int k, boolean shortest) {
+        if (size == 0 || k <= 0 || fromYear > toYear) {
+            return new int[0];
+        }
+        int from = lowerBound(previousWins, fromYear);
+        int to = toYear == Integer.MAX_VALUE ? size : lowerBound(previousWins, toYear + 1);
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(shortest
+                ? (a, b) -> Integer.compare(a.interval(), b.interval())
+                : (a, b) -> Integer.compare(b.interval(), a.interval()));
+        cover(1, 0, size, from, to, toYear, shortest, queue);
+
+        int[] result = new int[Math.min(k, to - from) + 1];
+        int count = 0;
+        int last = 0;
+        while (!queue.isEmpty()) {
+            Candidate candidate = queue.peek();
+            if (count >= k && candidate.interval() != last) {
+                break;
+            }
+            queue.poll();
+            if (candidate.to() - candidate.from() == 1) {
+                if (count == result.length) {
+                    result = Arrays.copyOf(result, result.length * 2);
+                }
+                result[count++] = positions[candidate.from()];
+                last = candidate.interval();
+            } else {
+                int middle = (candidate.from() + candidate.to()) >>> 1;
+                offer(2 * candidate.node(), candidate.from(), middle, toYear, shortest, queue);
+                offer(2 * candidate.node() + 1, middle, candidate.to(), toYear, shortest, queue);
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    // Queues the nodes exactly covering [from, to)
+    private void cover(int node, int nodeFrom, int nodeTo, int from, int to, int toYear, boolean shortest,
+                       PriorityQueue<Candidate> queue) {
+        if (to <= nodeFrom || nodeTo <= from) {
+            return;
+        }
+        if (from <= nodeFrom && nodeTo <= to) {
+            offer(node, nodeFrom, nodeTo, toYear, shortest, queue);
+            return;
+        }
+        int middle = (nodeFrom + nodeTo) >>> 1;
+        cover(2 * node, nodeFrom, middle, from, to, toYear, shortest, queue);
+        cover(2 * node + 1, middle, nodeTo, from, to, toYear, shortest, queue);
+    }
+
+    private void offer(int node, int from, int to, int toYear, boolean shortest, PriorityQueue<Candidate> queue) {
+        int ending = upperBound(followingWins[node], toYear);
+        if (ending > 0) {
+            int interval = shortest ? prefixMin[node][ending - 1] : prefixMax[node][ending - 1];
+            queue.add(new Candidate(node, from, to, interval));
+        }
+    }
+
+    private static long[] merge(long[] left, long[] right) {
+        long[] merged = new long[left.length + right.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            merged[k++] = left[i] <= right[j] ? left[i++] : right[j++];
+        }
+        while (i < left.length) {
+            merged[k++] = left[i++];
+        }
+        while (j < right.length) {
+            merged[k++] = right[j++];
+        }
+        return merged;
+    }
+
+    private static int lowerBound(int[] values, int key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(int[] values, int key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private record Candidate(int node, int from, int to, int interval) {
+    }
+}
@@ -0,0 +1,250 @@
+package com.pedro.orso.outsera.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Export of the whole catalog in one pass. Movies, their studios and their producers are read through three
+ * forward only cursors, all in movie id order, and merged as they are written: only the movie being written and
+ * its credits are held, whatever the size of the catalog. Output goes through a fixed size buffer straight to
+ * the response, so a slow client slows the reading down instead of letting rows pile up.
+ * <p>
+ * The cursors run in one repeatable read transaction, so they all see the same snapshot: a movie committed while
+ * the export starts is written with all of its credits or not at all.
+ */
+@Service
+@RequiredArgsConstructor
+public class MovieExportService {
+
+    private static final String MOVIES_SQL = """
+            SELECT id, release_year, title, winner
+            FROM movie
+            ORDER BY id
+            """;
+
+    private static final String STUDIOS_SQL = """
+            SELECT ms.movie_id, s.id, s.name
+            FROM movie_studio ms
+            JOIN studio s ON s.id = ms.studio_id
+            ORDER BY ms.movie_id
+            """;
+
+    private static final String PRODUCERS_SQL = """
+            SELECT mp.movie_id, p.id, p.name
+            FROM movie_producer mp
+            JOIN producer p ON p.id = mp.producer_id
+            ORDER BY mp.movie_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Rows fetched per round trip on each cursor.
+     */
+    @Value("${outsera.export.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Bytes buffered before they are written to the response.
+     */
+    @Value("${outsera.export.buffer-size:16384}")
+    private int bufferSize;
+
+    /**
+     * Writes one JSON object per line, with the fields of the {@code GET /v1/movies} items.
+     *
+     * @return the number of movies written.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long exportNdjson(OutputStream output) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory()
+                .createGenerator(new BufferedOutputStream(output, bufferSize), JsonEncoding.UTF8)) {
+            // The response stream is closed by the container
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(null);
+            long movies = export(movie -> {
+                json.writeStartObject();
+                json.writeNumberField("id", movie.id);
+                json.writeStringField("title", movie.title);
+                json.writeNumberField("releaseYear", movie.releaseYear);
+                json.writeBooleanField("winner", movie.winner);
+                writeCredits(json, "studios", movie.studios);
+                writeCredits(json, "producers", movie.producers);
+                json.writeEndObject();
+                json.writeRaw('\n');
+            });
+            json.flush();
+            return movies;
+        }
+    }
+
+    /**
+     * Writes {@code year;title;studios;producers;winner} lines with a header, the layout of {@code movielist.csv}
+     * that {@code POST /v1/movies/import} reads back.
+     *
+     * @return the number of movies written.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long exportCsv(OutputStream output) throws IOException {
+        Writer csv = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), bufferSize);
+        csv.write("year;title;studios;producers;winner\n");
+        long movies = export(movie -> {
+            csv.write(Integer.toString(movie.releaseYear));
+            csv.write(';');
+            csv.write(csvField(movie.title));
+            csv.write(';');
+            csv.write(csvField(String.join(", ", movie.studios.names)));
+            csv.write(';');
+            csv.write(csvField(joinProducers(movie.producers.names)));
+            csv.write(';');
+            csv.write(movie.winner ? "yes" : "");
+            csv.write('\n');
+        });
+        csv.flush();
+        return movies;
+    }
+
+    private long export(MovieSink sink) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (PreparedStatement movies = cursor(connection, MOVIES_SQL);
+                 PreparedStatement studios = cursor(connection, STUDIOS_SQL);
+                 PreparedStatement producers = cursor(connection, PRODUCERS_SQL);
+                 ResultSet movieRows = movies.executeQuery();
+                 ResultSet studioRows = studios.executeQuery();
+                 ResultSet producerRows = producers.executeQuery()) {
+                CreditCursor studioCursor = new CreditCursor(studioRows);
+                CreditCursor producerCursor = new CreditCursor(producerRows);
+                ExportedMovie movie = new ExportedMovie();
+                long count = 0;
+                while (movieRows.next()) {
+                    movie.id = movieRows.getLong(1);
+                    movie.releaseYear = movieRows.getInt(2);
+                    movie.title = movieRows.getString(3);
+                    movie.winner = movieRows.getBoolean(4);
+                    studioCursor.readInto(movie.id, movie.studios);
+                    producerCursor.readInto(movie.id, movie.producers);
+                    sink.write(movie);
+                    count++;
+                }
+                return count;
+            } catch (IOException e) {
+                // Usually the client going away, which must close the cursors and give the connection back
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private PreparedStatement cursor(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(fetchSize);
+        return statement;
+    }
+
+    private static void writeCredits(JsonGenerator json, String field, Credits credits) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (int i = 0; i < credits.size(); i++) {
+            json.writeStartObject();
+            json.writeNumberField("id", credits.ids.get(i));
+            json.writeStringField("name", credits.names.get(i));
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+    }
+
+    // "A, B and C", the way movielist.csv lists producers
+    private static String joinProducers(List<String> names) {
+        if (names.size() < 2) {
+            return String.join("", names);
+        }
+        return String.join(", ", names.subList(0, names.size() - 1)) + " and " + names.get(names.size() - 1);
+    }
+
+    /**
+     * Quotes the values the import would otherwise split or unescape.
+     */
+    static String csvField(String value) {
+        if (value.indexOf(';') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface MovieSink {
+        void write(ExportedMovie movie) throws IOException;
+    }
+
+    /**
+     * The movie being written, reused from one row to the next.
+     */
+    private static final class ExportedMovie {
+        private long id;
+        private int releaseYear;
+        private String title;
+        private boolean winner;
+        private final Credits studios = new Credits();
+        private final Credits producers = new Credits();
+    }
+
+    private static final class Credits {
+        private final List<Long> ids = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+
+        int size() {
+            return ids.size();
+        }
+    }
+
+    /**
+     * Studio or producer rows in movie id order, read up to the first row of the next movie.
+     */
+    private static final class CreditCursor {
+
+        private final ResultSet rows;
+        private boolean hasRow;
+
+        CreditCursor(ResultSet rows) throws SQLException {
+            this.rows = rows;
+            this.hasRow = rows.next();
+        }
+
+        void readInto(long movieId, Credits credits) throws SQLException {
+            credits.ids.clear();
+            credits.names.clear();
+            // Credits of movies not read, deleted since the cursor was opened, are skipped
+            while (hasRow && rows.getLong(1) < movieId) {
+                hasRow = rows.next();
+            }
+            while (hasRow && rows.getLong(1) == movieId) {
+                credits.ids.add(rows.getLong(2));
+                credits.names.add(rows.getString(3));
+                hasRow = rows.next();
+            }
+        }
+    }
+}
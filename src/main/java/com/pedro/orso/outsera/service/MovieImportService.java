@@ -0,0 +1,188 @@
+package com.pedro.orso.outsera.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.orso.outsera.configuration.CacheConfiguration;
+import com.pedro.orso.outsera.service.loader.LineBlockReader;
+import com.pedro.orso.outsera.service.loader.LoaderMetrics;
+import com.pedro.orso.outsera.service.loader.MovieChunkWriter;
+import com.pedro.orso.outsera.service.loader.MovieChunkWriter.UpsertCounts;
+import com.pedro.orso.outsera.service.loader.MovieRow;
+import com.pedro.orso.outsera.service.loader.MovieRowParser;
+import com.pedro.orso.outsera.service.loader.NameDictionary;
+import com.pedro.orso.outsera.service.loader.RejectedLines;
+import com.pedro.orso.outsera.web.rest.dto.MovieImportResultDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk import of uploaded movie lists. The upload is parsed as it arrives and written in batches, so memory
+ * stays at one read block plus one batch whatever the size of the upload.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MovieImportService {
+
+    private static final int BLOCK_BYTES = 64 * 1024;
+
+    private final MovieChunkWriter movieChunkWriter;
+    private final ObjectMapper objectMapper;
+    private final DatasetVersion datasetVersion;
+    private final LoaderMetrics loaderMetrics;
+
+    @Value("${outsera.loader.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Imports {@code year;title;studios;producers;winner} lines, the same layout as {@code movielist.csv}.
+     * The header line is optional.
+     */
+    @CacheEvict(cacheNames = CacheConfiguration.MOVIES, allEntries = true)
+    public MovieImportResultDTO importCsv(InputStream input) throws IOException {
+        Import movieImport = new Import();
+        LineBlockReader reader = new LineBlockReader(input, BLOCK_BYTES);
+        MovieRowParser parser = new MovieRowParser(movieImport.rejectedLines);
+
+        ByteBuffer block;
+        boolean firstBlock = true;
+        while ((block = reader.next()) != null) {
+            long start = System.nanoTime();
+            long flushedBefore = movieImport.flushNanos;
+            int rejected = parser.parse(block, firstBlock, movieImport::add);
+            // Batches completed by the block are written from within parse, their time goes to resolve and persist
+            loaderMetrics.parsed(System.nanoTime() - start - (movieImport.flushNanos - flushedBefore), rejected);
+            movieImport.rejected += rejected;
+            firstBlock = false;
+        }
+        return movieImport.finish();
+    }
+
+    /**
+     * Imports one JSON object per line with the fields of {@code movielist.csv}: {@code year}, {@code title},
+     * {@code studios}, {@code producers} and {@code winner}. Studios and producers are either arrays or strings
+     * in the csv form, winner either a boolean or {@code "yes"}.
+     */
+    @CacheEvict(cacheNames = CacheConfiguration.MOVIES, allEntries = true)
+    public MovieImportResultDTO importNdjson(InputStream input) throws IOException {
+        Import movieImport = new Import();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                movieImport.add(toRow(objectMapper.readTree(line)));
+            } catch (IOException | RuntimeException e) {
+                movieImport.rejectedLines.reject("line", line);
+                loaderMetrics.rejected(1);
+                movieImport.rejected++;
+            }
+        }
+        return movieImport.finish();
+    }
+
+    private static MovieRow toRow(JsonNode node) {
+        JsonNode year = node.path("year");
+        if (!year.canConvertToInt()) {
+            throw new IllegalArgumentException("Invalid year: " + year);
+        }
+        JsonNode winner = node.path("winner");
+        return new MovieRow(
+                year.asInt(),
+                node.path("title").asText("").trim(),
+                names(node.path("studios"), false),
+                names(node.path("producers"), true),
+                winner.isBoolean() ? winner.booleanValue() : "yes".equalsIgnoreCase(winner.asText("").trim()));
+    }
+
+    private static List<String> names(JsonNode node, boolean producers) {
+        if (node.isArray()) {
+            List<String> names = new ArrayList<>();
+            node.forEach(name -> {
+                if (!name.asText("").isBlank()) {
+                    names.add(name.asText().trim());
+                }
+            });
+            return names;
+        }
+        String value = node.asText("");
+        return producers ? MovieRowParser.splitProducers(value) : MovieRowParser.splitStudios(value);
+    }
+
+    private class Import {
+
+        private final long start = System.nanoTime();
+        private final NameDictionary dictionary = movieChunkWriter.openDictionary();
+        // Upload content is untrusted, only a sample of the rejected lines reaches WARN
+        private final RejectedLines rejectedLines = new RejectedLines();
+        private final List<MovieRow> batch = new ArrayList<>();
+        private long inserted;
+        private long updated;
+        private long rejected;
+        private long flushNanos;
+
+        void add(MovieRow row) {
+            if (row.title().isEmpty()) {
+                rejectedLines.reject("movie without title from", Integer.toString(row.releaseYear()));
+                loaderMetrics.rejected(1);
+                rejected++;
+                return;
+            }
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                UpsertCounts counts = movieChunkWriter.upsert(batch, dictionary);
+                inserted += counts.inserted();
+                updated += counts.updated();
+                datasetVersion.bump();
+            } catch (RuntimeException e) {
+                log.error("Batch of {} movies could not be saved, rejecting it", batch.size(), e);
+                loaderMetrics.rejected(batch.size());
+                rejected += batch.size();
+            }
+            batch.clear();
+            flushNanos += System.nanoTime() - start;
+        }
+
+        MovieImportResultDTO finish() {
+            flush();
+            long elapsedNanos = System.nanoTime() - start;
+            long rows = inserted + updated;
+
+            MovieImportResultDTO result = new MovieImportResultDTO();
+            result.setInserted(inserted);
+            result.setUpdated(updated);
+            result.setRejected(rejected);
+            result.setElapsedMillis(elapsedNanos / 1_000_000);
+            result.setRowsPerSecond(elapsedNanos == 0 ? rows : Math.round(rows * 1_000_000_000d / elapsedNanos));
+            loaderMetrics.finished(result.getRowsPerSecond());
+            log.info("Imported {} new and {} updated movies, rejected {} rows in {} ms",
+                    inserted, updated, rejected, result.getElapsedMillis());
+            return result;
+        }
+    }
+}
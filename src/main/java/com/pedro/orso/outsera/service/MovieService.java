@@ -1,7 +1,9 @@
 package com.pedro.orso.outsera.service;
 
+import com.pedro.orso.outsera.configuration.CacheConfiguration;
 import com.pedro.orso.outsera.domain.Movie;
 import com.pedro.orso.outsera.domain.Producer;
+import com.pedro.orso.outsera.repository.MovieCredit;
 import com.pedro.orso.outsera.repository.MovieRepository;
 import com.pedro.orso.outsera.repository.ProducerRepository;
 import com.pedro.orso.outsera.web.rest.dto.MovieDTO;
@@ -9,15 +11,33 @@ import com.pedro.orso.outsera.web.rest.dto.ProducerDto;
 import com.pedro.orso.outsera.web.rest.mapper.MovieMapper;
 import com.pedro.orso.outsera.domain.Studio;
 import com.pedro.orso.outsera.repository.StudioRepository;
+import com.pedro.orso.outsera.service.award.ProducerWinIntervalRefresher;
 import com.pedro.orso.outsera.web.rest.dto.StudioDto;
+import com.pedro.orso.outsera.web.rest.filter.MovieCriteria;
+import com.pedro.orso.outsera.web.rest.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -29,7 +49,13 @@ public class MovieService {
     private final MovieMapper movieMapper;
     private final StudioRepository studioRepository;
     private final ProducerRepository producerRepository;
+    private final AwardIntervalIndex awardIntervalIndex;
+    private final ProducerWinIntervalRefresher producerWinIntervalRefresher;
+    private final DatasetVersion datasetVersion;
+    private final SingleFlight<Long, MovieDTO> movieLoads;
 
+    @Transactional
+    @CachePut(cacheNames = CacheConfiguration.MOVIES, key = "#result.id")
     public MovieDTO createMovie(MovieDTO movieDTO) {
         Movie movie = movieMapper.toEntity(movieDTO);
 
@@ -58,41 +84,159 @@ public class MovieService {
         }
 
         movie = movieRepository.save(movie);
+        awardIntervalIndex.upsert(movie);
+        if (movie.isWinner()) {
+            producerWinIntervalRefresher.touch(producerIds(movie));
+        }
+        datasetVersion.bump();
         log.info("Created new movie with id and title: {} {}", movie.getId(), movie.getTitle());
 
         return movieMapper.toDto(movie);
     }
 
+    @Cacheable(cacheNames = CacheConfiguration.MOVIES)
     public MovieDTO getMovieById(Long id) {
-        return movieRepository.findById(id)
-                .map(movieMapper::toDto)
-                .orElse(null);
+        return movieLoads.execute(id, () -> movieRepository.findById(id)
+                .map(movie -> withCredits(List.of(movie)).get(0))
+                .orElse(null));
+    }
+
+    public Slice<MovieDTO> getAllMovies(MovieCriteria criteria, Pageable pageable) {
+        Specification<Movie> specification = MovieSpecifications.matching(criteria);
+        if (specification == null) {
+            return withCredits(movieRepository.findAllBy(pageable));
+        }
+        Window<Movie> window = movieRepository.findBy(specification, query -> query
+                .sortBy(pageable.getSort())
+                .limit(pageable.getPageSize())
+                .scroll(offsetPosition(pageable)));
+        return withCredits(new SliceImpl<>(window.getContent(), pageable, window.hasNext()));
+    }
+
+    /**
+     * Up to {@code size} movies matching {@code criteria} and following {@code after} in (title, id) order, from
+     * the first one when {@code after} is {@code null}.
+     */
+    public Slice<MovieDTO> getMoviesAfter(MovieCriteria criteria, KeysetCursor after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        Specification<Movie> specification = MovieSpecifications.matching(criteria);
+        if (specification == null) {
+            Slice<Movie> page = after == null
+                    ? movieRepository.findAllByOrderByTitleAscIdAsc(limit)
+                    : movieRepository.findPageAfter(after.key(), after.id(), limit);
+            return withCredits(page);
+        }
+        KeysetScrollPosition position = after == null
+                ? ScrollPosition.keyset()
+                : ScrollPosition.forward(Map.of("title", after.key(), "id", after.id()));
+        Window<Movie> window = movieRepository.findBy(specification, query -> query
+                .sortBy(Sort.by("title", "id"))
+                .limit(size)
+                .scroll(position));
+        return withCredits(new SliceImpl<>(window.getContent(), limit, window.hasNext()));
+    }
+
+    // Offset scroll positions point at the last element already read, not at the first one to return
+    private static ScrollPosition offsetPosition(Pageable pageable) {
+        return pageable.getOffset() == 0 ? ScrollPosition.offset() : ScrollPosition.offset(pageable.getOffset() - 1);
     }
 
-    public Page<MovieDTO> getAllMovies(Pageable pageable) {
-        return movieRepository.findAll(pageable)
-                .map(movieMapper::toDto);
+    private Slice<MovieDTO> withCredits(Slice<Movie> movies) {
+        return new SliceImpl<>(withCredits(movies.getContent()), movies.getPageable(), movies.hasNext());
+    }
+
+    /**
+     * Maps the movies with their studios and producers read by one query each for the whole list, instead of
+     * lazily loading both collections movie by movie.
+     */
+    private List<MovieDTO> withCredits(List<Movie> movies) {
+        if (movies.isEmpty()) {
+            return List.of();
+        }
+        List<Long> movieIds = movies.stream().map(Movie::getId).toList();
+
+        Map<Long, List<StudioDto>> studios = new HashMap<>();
+        for (MovieCredit credit : movieRepository.findStudioCredits(movieIds)) {
+            StudioDto studio = new StudioDto();
+            studio.setId(credit.getId());
+            studio.setName(credit.getName());
+            studios.computeIfAbsent(credit.getMovieId(), id -> new ArrayList<>()).add(studio);
+        }
+
+        Map<Long, List<ProducerDto>> producers = new HashMap<>();
+        for (MovieCredit credit : movieRepository.findProducerCredits(movieIds)) {
+            ProducerDto producer = new ProducerDto();
+            producer.setId(credit.getId());
+            producer.setName(credit.getName());
+            producers.computeIfAbsent(credit.getMovieId(), id -> new ArrayList<>()).add(producer);
+        }
+
+        List<MovieDTO> dtos = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            MovieDTO dto = movieMapper.toSummaryDto(movie);
+            dto.setStudios(studios.getOrDefault(movie.getId(), new ArrayList<>()));
+            dto.setProducers(producers.getOrDefault(movie.getId(), new ArrayList<>()));
+            dtos.add(dto);
+        }
+        return dtos;
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfiguration.MOVIES, key = "#id")
     public MovieDTO updateMovie(Long id, MovieDTO movieDto) {
-        if (!movieRepository.existsById(id)) {
+        Movie current = movieRepository.findById(id).orElse(null);
+        if (current == null) {
             return null;
         }
+        // Only winning movies count for the intervals, before and after the update
+        Set<Long> touchedProducers = current.isWinner() ? creditedProducerIds(id) : new HashSet<>();
         Movie movie = movieMapper.toEntity(movieDto);
         movie.setId(id);
         movie = movieRepository.save(movie);
+        // Changing only the producers does not fire @PostUpdate, so the index is refreshed explicitly
+        awardIntervalIndex.upsert(movie);
+        if (movie.isWinner()) {
+            touchedProducers.addAll(producerIds(movie));
+        }
+        producerWinIntervalRefresher.touch(touchedProducers);
+        datasetVersion.bump();
         log.info("Updated movie with id and title: {} {}", movie.getId(), movie.getTitle());
 
         return movieMapper.toDto(movie);
     }
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfiguration.MOVIES, key = "#id")
     public boolean deleteMovieById(Long id) {
-        if (!movieRepository.existsById(id)) {
+        Movie movie = movieRepository.findById(id).orElse(null);
+        if (movie == null) {
             return false;
         }
-        movieRepository.deleteById(id);
+        Set<Long> touchedProducers = movie.isWinner() ? creditedProducerIds(id) : Set.of();
+        movieRepository.delete(movie);
+        awardIntervalIndex.remove(id);
+        producerWinIntervalRefresher.touch(touchedProducers);
+        datasetVersion.bump();
         log.info("Deleted movie with id: {}", id);
 
         return true;
     }
-}
\ No newline at end of file
+
+    private Set<Long> creditedProducerIds(Long movieId) {
+        Set<Long> ids = new HashSet<>();
+        for (MovieCredit credit : movieRepository.findProducerCredits(List.of(movieId))) {
+            ids.add(credit.getId());
+        }
+        return ids;
+    }
+
+    private static Set<Long> producerIds(Movie movie) {
+        Set<Long> ids = new HashSet<>();
+        if (movie.getProducers() != null) {
+            for (Producer producer : movie.getProducers()) {
+                ids.add(producer.getId());
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,122 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.domain.Movie;
+import com.pedro.orso.outsera.web.rest.filter.BooleanFilter;
+import com.pedro.orso.outsera.web.rest.filter.LongFilter;
+import com.pedro.orso.outsera.web.rest.filter.MovieCriteria;
+import com.pedro.orso.outsera.web.rest.filter.StringFilter;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Translates a {@link MovieCriteria} into a single {@link Specification}. Studio and producer filters become
+ * {@code EXISTS} subqueries over the join tables, so matching movies are never duplicated.
+ */
+final class MovieSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private MovieSpecifications() {
+    }
+
+    /**
+     * @return the specification, or {@code null} when no filter is set.
+     */
+    static Specification<Movie> matching(MovieCriteria criteria) {
+        if (criteria == null || (criteria.getReleaseYear() == null && criteria.getWinner() == null
+                && criteria.getTitle() == null && criteria.getStudio() == null && criteria.getProducer() == null)) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            addYear(predicates, cb, root.get("releaseYear"), criteria.getReleaseYear());
+            addBoolean(predicates, cb, root.get("winner"), criteria.getWinner());
+            addString(predicates, cb, root.get("title"), criteria.getTitle());
+            if (criteria.getStudio() != null) {
+                predicates.add(credited(root, query, cb, "studios", criteria.getStudio()));
+            }
+            if (criteria.getProducer() != null) {
+                predicates.add(credited(root, query, cb, "producers", criteria.getProducer()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // Release years are ints, bounds outside that range are clamped instead of overflowing
+    private static void addYear(List<Predicate> predicates, CriteriaBuilder cb, Expression<Integer> year, LongFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getEquals() != null) {
+            long value = filter.getEquals();
+            predicates.add(value == (int) value ? cb.equal(year, (int) value) : cb.disjunction());
+        }
+        if (filter.getGreaterThan() != null) {
+            predicates.add(cb.greaterThan(year, clamp(filter.getGreaterThan())));
+        }
+        if (filter.getLessThan() != null) {
+            predicates.add(cb.lessThan(year, clamp(filter.getLessThan())));
+        }
+    }
+
+    private static void addBoolean(List<Predicate> predicates, CriteriaBuilder cb, Expression<Boolean> value, BooleanFilter filter) {
+        if (filter != null && filter.getEquals() != null) {
+            predicates.add(cb.equal(value, filter.getEquals()));
+        }
+    }
+
+    /**
+     * {@code equals} is exact, {@code contains}, {@code startsWith} and {@code endsWith} ignore case.
+     */
+    private static void addString(List<Predicate> predicates, CriteriaBuilder cb, Expression<String> value, StringFilter filter) {
+        if (filter == null) {
+            return;
+        }
+        if (filter.getEquals() != null) {
+            predicates.add(cb.equal(value, filter.getEquals()));
+        }
+        if (filter.getContains() != null) {
+            predicates.add(cb.like(cb.lower(value), "%" + escapeLike(filter.getContains()) + "%", LIKE_ESCAPE));
+        }
+        if (filter.getStartsWith() != null) {
+            predicates.add(cb.like(cb.lower(value), escapeLike(filter.getStartsWith()) + "%", LIKE_ESCAPE));
+        }
+        if (filter.getEndsWith() != null) {
+            predicates.add(cb.like(cb.lower(value), "%" + escapeLike(filter.getEndsWith()), LIKE_ESCAPE));
+        }
+    }
+
+    private static Predicate credited(Root<Movie> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                      String collection, StringFilter name) {
+        Subquery<Long> credits = query.subquery(Long.class);
+        Root<Movie> movie = credits.from(Movie.class);
+        Join<Movie, ?> credit = movie.join(collection);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(movie.get("id"), root.get("id")));
+        addString(predicates, cb, credit.get("name"), name);
+
+        credits.select(movie.get("id")).where(predicates.toArray(Predicate[]::new));
+        return cb.exists(credits);
+    }
+
+    private static int clamp(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, value));
+    }
+
+    private static String escapeLike(String value) {
+        return value.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
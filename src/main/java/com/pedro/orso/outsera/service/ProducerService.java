@@ -1,12 +1,19 @@
 package com.pedro.orso.outsera.service;
 
+import com.pedro.orso.outsera.configuration.CacheConfiguration;
 import com.pedro.orso.outsera.web.rest.dto.ProducerDto;
 import com.pedro.orso.outsera.web.rest.mapper.ProducerMapper;
 import com.pedro.orso.outsera.domain.Producer;
 import com.pedro.orso.outsera.repository.ProducerRepository;
+import com.pedro.orso.outsera.web.rest.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,24 +22,47 @@ public class ProducerService {
 
     private final ProducerRepository producerRepository;
     private final ProducerMapper producerMapper;
+    private final AwardIntervalIndex awardIntervalIndex;
+    private final DatasetVersion datasetVersion;
+    private final SingleFlight<Long, ProducerDto> producerLoads;
 
+    @CachePut(cacheNames = CacheConfiguration.PRODUCERS, key = "#result.id")
     public ProducerDto createProducer(ProducerDto producerDto) {
         Producer producer = producerMapper.toEntity(producerDto);
         producer = producerRepository.save(producer);
+        datasetVersion.bump();
         return producerMapper.toDto(producer);
     }
 
+    @Cacheable(cacheNames = CacheConfiguration.PRODUCERS)
     public ProducerDto getProducerById(Long id) {
-        return producerRepository.findById(id)
+        return producerLoads.execute(id, () -> producerRepository.findById(id)
                 .map(producerMapper::toDto)
-                .orElse(null);
+                .orElse(null));
     }
 
-    public Page<ProducerDto> getAllProducers(Pageable pageable) {
-        return producerRepository.findAll(pageable)
+    public Slice<ProducerDto> getAllProducers(Pageable pageable) {
+        return producerRepository.findAllBy(pageable)
                 .map(producerMapper::toDto);
     }
 
+    /**
+     * Up to {@code size} producers following {@code after} in (name, id) order, from the first one when
+     * {@code after} is {@code null}.
+     */
+    public Slice<ProducerDto> getProducersAfter(KeysetCursor after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        Slice<Producer> page = after == null
+                ? producerRepository.findAllByOrderByNameAscIdAsc(limit)
+                : producerRepository.findPageAfter(after.key(), after.id(), limit);
+        return page.map(producerMapper::toDto);
+    }
+
+    // Movies are cached with the names of their producers
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.PRODUCERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfiguration.MOVIES, allEntries = true)
+    })
     public ProducerDto updateProducer(Long id, ProducerDto producerDto) {
         if (!producerRepository.existsById(id)) {
             return null;
@@ -40,14 +70,22 @@ public class ProducerService {
         Producer producer = producerMapper.toEntity(producerDto);
         producer.setId(id);
         producer = producerRepository.save(producer);
+        awardIntervalIndex.renameProducer(producer.getId(), producer.getName());
+        datasetVersion.bump();
         return producerMapper.toDto(producer);
     }
 
+    // Movies are cached with the names of their producers
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.PRODUCERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfiguration.MOVIES, allEntries = true)
+    })
     public boolean deleteProducerById(Long id) {
         if (!producerRepository.existsById(id)) {
             return false;
         }
         producerRepository.deleteById(id);
+        datasetVersion.bump();
         return true;
     }
 }
\ No newline at end of file
@@ -1,12 +1,19 @@
 package com.pedro.orso.outsera.service;
 
+import com.pedro.orso.outsera.configuration.CacheConfiguration;
 import com.pedro.orso.outsera.domain.Studio;
 import com.pedro.orso.outsera.repository.StudioRepository;
 import com.pedro.orso.outsera.web.rest.dto.StudioDto;
 import com.pedro.orso.outsera.web.rest.mapper.StudioMapper;
+import com.pedro.orso.outsera.web.rest.util.KeysetCursor;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -15,24 +22,46 @@ public class StudioService {
 
     private final StudioRepository studioRepository;
     private final StudioMapper studioMapper;
+    private final DatasetVersion datasetVersion;
+    private final SingleFlight<Long, StudioDto> studioLoads;
 
+    @CachePut(cacheNames = CacheConfiguration.STUDIOS, key = "#result.id")
     public StudioDto createStudio(StudioDto studioDto) {
         Studio studio = studioMapper.toEntity(studioDto);
         studio = studioRepository.save(studio);
+        datasetVersion.bump();
         return studioMapper.toDto(studio);
     }
 
+    @Cacheable(cacheNames = CacheConfiguration.STUDIOS)
     public StudioDto getStudioById(Long id) {
-        return studioRepository.findById(id)
+        return studioLoads.execute(id, () -> studioRepository.findById(id)
                 .map(studioMapper::toDto)
-                .orElse(null);
+                .orElse(null));
     }
 
-    public Page<StudioDto> getAllStudios(Pageable pageable) {
-        return studioRepository.findAll(pageable)
+    public Slice<StudioDto> getAllStudios(Pageable pageable) {
+        return studioRepository.findAllBy(pageable)
                 .map(studioMapper::toDto);
     }
 
+    /**
+     * Up to {@code size} studios following {@code after} in (name, id) order, from the first one when
+     * {@code after} is {@code null}.
+     */
+    public Slice<StudioDto> getStudiosAfter(KeysetCursor after, int size) {
+        Pageable limit = PageRequest.of(0, size);
+        Slice<Studio> page = after == null
+                ? studioRepository.findAllByOrderByNameAscIdAsc(limit)
+                : studioRepository.findPageAfter(after.key(), after.id(), limit);
+        return page.map(studioMapper::toDto);
+    }
+
+    // Movies are cached with the names of their studios
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.STUDIOS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfiguration.MOVIES, allEntries = true)
+    })
     public StudioDto updateStudio(Long id, StudioDto studioDto) {
         if (!studioRepository.existsById(id)) {
             return null;
@@ -40,14 +69,21 @@ public class StudioService {
         Studio studio = studioMapper.toEntity(studioDto);
         studio.setId(id);
         studio = studioRepository.save(studio);
+        datasetVersion.bump();
         return studioMapper.toDto(studio);
     }
 
+    // Movies are cached with the names of their studios
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfiguration.STUDIOS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfiguration.MOVIES, allEntries = true)
+    })
     public boolean deleteStudioById(Long id) {
         if (!studioRepository.existsById(id)) {
             return false;
         }
         studioRepository.deleteById(id);
+        datasetVersion.bump();
         return true;
     }
 }
\ No newline at end of file
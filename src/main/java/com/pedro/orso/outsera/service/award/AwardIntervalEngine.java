@@ -0,0 +1,31 @@
+package com.pedro.orso.outsera.service.award;
+
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+
+import java.util.Comparator;
+import java.util.function.LongConsumer;
+
+/**
+ * One way of computing the producers with the shortest and longest interval between two consecutive wins,
+ * selected with {@code outsera.awards.engine}. Every engine returns the same response for the same data.
+ */
+public interface AwardIntervalEngine {
+
+    /**
+     * Order of the intervals within {@code min} and {@code max}, shared by every engine.
+     */
+    Comparator<ProducerIntervalDTO> RESULT_ORDER = Comparator
+            .comparing(ProducerIntervalDTO::getProducer)
+            .thenComparingInt(ProducerIntervalDTO::getPreviousWin);
+
+    /**
+     * Value of {@code outsera.awards.engine} selecting this engine.
+     */
+    String name();
+
+    /**
+     * @param rowsScanned told how many rows were read from the database to compute the response.
+     */
+    ProducerIntervalResponseDTO getMinAndMaxIntervals(LongConsumer rowsScanned);
+}
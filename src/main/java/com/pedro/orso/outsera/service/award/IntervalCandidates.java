@@ -0,0 +1,130 @@
+package com.pedro.orso.outsera.service.award;
+
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Running shortest and longest intervals seen so far, with every interval tied for them, kept in primitive
+ * arrays. Only the current candidates are stored: a strictly better interval drops them, so memory follows the
+ * number of ties and not the number of intervals offered.
+ * <p>
+ * {@link #merge(IntervalCandidates)} is associative, partial results can be combined in any grouping.
+ * Not thread safe.
+ */
+public final class IntervalCandidates {
+
+    private final Ties shortest = new Ties();
+    private final Ties longest = new Ties();
+
+    public void add(long producerId, int previousWin, int followingWin) {
+        int interval = followingWin - previousWin;
+        if (shortest.count == 0 || interval < shortest.interval) {
+            shortest.reset(interval);
+        }
+        if (interval == shortest.interval) {
+            shortest.add(producerId, previousWin);
+        }
+        if (longest.count == 0 || interval > longest.interval) {
+            longest.reset(interval);
+        }
+        if (interval == longest.interval) {
+            longest.add(producerId, previousWin);
+        }
+    }
+
+    /**
+     * Folds {@code other} into this one.
+     *
+     * @return this instance.
+     */
+    public IntervalCandidates merge(IntervalCandidates other) {
+        if (other.shortest.count > 0) {
+            if (shortest.count == 0 || other.shortest.interval < shortest.interval) {
+                shortest.reset(other.shortest.interval);
+            }
+            if (other.shortest.interval == shortest.interval) {
+                shortest.addAll(other.shortest);
+            }
+        }
+        if (other.longest.count > 0) {
+            if (longest.count == 0 || other.longest.interval > longest.interval) {
+                longest.reset(other.longest.interval);
+            }
+            if (other.longest.interval == longest.interval) {
+                longest.addAll(other.longest);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Producers holding a candidate, the only ones whose names are needed.
+     */
+    public Set<Long> producerIds() {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < shortest.count; i++) {
+            ids.add(shortest.producerIds[i]);
+        }
+        for (int i = 0; i < longest.count; i++) {
+            ids.add(longest.producerIds[i]);
+        }
+        return ids;
+    }
+
+    public ProducerIntervalResponseDTO toResponse(Map<Long, String> producerNames) {
+        ProducerIntervalResponseDTO response = new ProducerIntervalResponseDTO();
+        response.setMin(shortest.toDtos(producerNames));
+        response.setMax(longest.toDtos(producerNames));
+        return response;
+    }
+
+    private static final class Ties {
+
+        private int interval;
+        private int count;
+        private long[] producerIds = new long[4];
+        private int[] previousWins = new int[4];
+
+        void reset(int interval) {
+            this.interval = interval;
+            this.count = 0;
+        }
+
+        void add(long producerId, int previousWin) {
+            if (count == producerIds.length) {
+                producerIds = Arrays.copyOf(producerIds, count * 2);
+                previousWins = Arrays.copyOf(previousWins, count * 2);
+            }
+            producerIds[count] = producerId;
+            previousWins[count] = previousWin;
+            count++;
+        }
+
+        void addAll(Ties other) {
+            for (int i = 0; i < other.count; i++) {
+                add(other.producerIds[i], other.previousWins[i]);
+            }
+        }
+
+        List<ProducerIntervalDTO> toDtos(Map<Long, String> producerNames) {
+            List<ProducerIntervalDTO> dtos = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ProducerIntervalDTO dto = new ProducerIntervalDTO();
+                dto.setProducer(producerNames.get(producerIds[i]));
+                dto.setInterval(interval);
+                dto.setPreviousWin(previousWins[i]);
+                dto.setFollowingWin(previousWins[i] + interval);
+                dtos.add(dto);
+            }
+            dtos.sort(AwardIntervalEngine.RESULT_ORDER);
+            return dtos;
+        }
+    }
+}
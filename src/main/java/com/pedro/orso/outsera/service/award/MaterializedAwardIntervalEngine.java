@@ -0,0 +1,57 @@
+package com.pedro.orso.outsera.service.award;
+
+import com.pedro.orso.outsera.domain.ProducerWinInterval;
+import com.pedro.orso.outsera.repository.ProducerWinIntervalRepository;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Reads the min and max intervals from the {@code producer_win_interval} table maintained by
+ * {@link ProducerWinIntervalRefresher}: two lookups on the interval index, whatever the number of winners.
+ */
+@Component
+@RequiredArgsConstructor
+public class MaterializedAwardIntervalEngine implements AwardIntervalEngine {
+
+    static final String NAME = "materialized";
+
+    private final ProducerWinIntervalRepository producerWinIntervalRepository;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProducerIntervalResponseDTO getMinAndMaxIntervals(LongConsumer rowsScanned) {
+        List<ProducerWinInterval> shortest = producerWinIntervalRepository.findShortest();
+        List<ProducerWinInterval> longest = producerWinIntervalRepository.findLongest();
+        rowsScanned.accept(shortest.size() + longest.size());
+        ProducerIntervalResponseDTO response = new ProducerIntervalResponseDTO();
+        response.setMin(toDtos(shortest));
+        response.setMax(toDtos(longest));
+        return response;
+    }
+
+    private static List<ProducerIntervalDTO> toDtos(List<ProducerWinInterval> intervals) {
+        List<ProducerIntervalDTO> dtos = new ArrayList<>(intervals.size());
+        for (ProducerWinInterval interval : intervals) {
+            ProducerIntervalDTO dto = new ProducerIntervalDTO();
+            dto.setProducer(interval.getProducer().getName());
+            dto.setInterval(interval.getInterval());
+            dto.setPreviousWin(interval.getPreviousWin());
+            dto.setFollowingWin(interval.getFollowingWin());
+            dtos.add(dto);
+        }
+        dtos.sort(RESULT_ORDER);
+        return dtos;
+    }
+}
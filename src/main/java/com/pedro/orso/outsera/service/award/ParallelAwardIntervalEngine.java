@@ -0,0 +1,163 @@
+package com.pedro.orso.outsera.service.award;
+
+import com.pedro.orso.outsera.domain.Producer;
+import com.pedro.orso.outsera.repository.ProducerRepository;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongConsumer;
+
+/**
+ * Reads the winning {@code (producer_id, release_year)} pairs like {@link StreamingAwardIntervalEngine}, but into
+ * primitive arrays, then splits them on producer boundaries and computes the candidates of each partition on a
+ * {@link ForkJoinPool}. Partitions never share a producer, so each interval is seen by exactly one of them and
+ * the partial {@link IntervalCandidates} are merged in any order.
+ */
+@Component
+public class ParallelAwardIntervalEngine implements AwardIntervalEngine {
+
+    /**
+     * Partitions smaller than this are scanned by the thread that owns them.
+     */
+    static final int DEFAULT_THRESHOLD = 1 << 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProducerRepository producerRepository;
+    private final ForkJoinPool pool;
+
+    @Value("${outsera.awards.fetch-size:1000}")
+    private int fetchSize;
+
+    public ParallelAwardIntervalEngine(JdbcTemplate jdbcTemplate, ProducerRepository producerRepository,
+                                       @Value("${outsera.awards.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.producerRepository = producerRepository;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    @Override
+    public String name() {
+        return "parallel";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProducerIntervalResponseDTO getMinAndMaxIntervals(LongConsumer rowsScanned) {
+        WinningYears winningYears = new WinningYears();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(StreamingAwardIntervalEngine.WINNING_YEARS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> winningYears.add(rs.getLong(1), rs.getInt(2)));
+        rowsScanned.accept(winningYears.size);
+
+        IntervalCandidates candidates = compute(pool, winningYears.producerIds, winningYears.years,
+                winningYears.size, DEFAULT_THRESHOLD);
+
+        Map<Long, String> names = new HashMap<>();
+        for (Producer producer : producerRepository.findAllById(candidates.producerIds())) {
+            names.put(producer.getId(), producer.getName());
+        }
+        return candidates.toResponse(names);
+    }
+
+    /**
+     * Candidates of the first {@code size} pairs, which must be sorted by producer and then year.
+     */
+    static IntervalCandidates compute(ForkJoinPool pool, long[] producerIds, int[] years, int size, int threshold) {
+        return pool.invoke(new PartitionTask(producerIds, years, 0, size, Math.max(threshold, 2)));
+    }
+
+    private static final class PartitionTask extends RecursiveTask<IntervalCandidates> {
+
+        private final long[] producerIds;
+        private final int[] years;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        PartitionTask(long[] producerIds, int[] years, int from, int to, int threshold) {
+            this.producerIds = producerIds;
+            this.years = years;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected IntervalCandidates compute() {
+            int split = to - from > threshold ? split() : -1;
+            if (split < 0) {
+                return scan();
+            }
+            PartitionTask left = new PartitionTask(producerIds, years, from, split, threshold);
+            PartitionTask right = new PartitionTask(producerIds, years, split, to, threshold);
+            left.fork();
+            IntervalCandidates candidates = right.compute();
+            return left.join().merge(candidates);
+        }
+
+        /**
+         * First producer boundary around the middle of the range, or -1 when it holds a single producer.
+         */
+        private int split() {
+            int middle = (from + to) >>> 1;
+            for (int i = middle; i < to; i++) {
+                if (producerIds[i] != producerIds[i - 1]) {
+                    return i;
+                }
+            }
+            for (int i = middle - 1; i > from; i--) {
+                if (producerIds[i] != producerIds[i - 1]) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private IntervalCandidates scan() {
+            IntervalCandidates candidates = new IntervalCandidates();
+            for (int i = from + 1; i < to; i++) {
+                if (producerIds[i] == producerIds[i - 1]) {
+                    candidates.add(producerIds[i], years[i - 1], years[i]);
+                }
+            }
+            return candidates;
+        }
+    }
+
+    private static final class WinningYears {
+
+        private long[] producerIds = new long[1024];
+        private int[] years = new int[1024];
+        private int size;
+
+        void add(long producerId, int year) {
+            if (size == years.length) {
+                producerIds = Arrays.copyOf(producerIds, size * 2);
+                years = Arrays.copyOf(years, size * 2);
+            }
+            producerIds[size] = producerId;
+            years[size] = year;
+            size++;
+        }
+    }
+}
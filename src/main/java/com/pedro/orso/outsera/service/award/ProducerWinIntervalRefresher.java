@@ -0,0 +1,138 @@
+package com.pedro.orso.outsera.service.award;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps the {@code producer_win_interval} table in line with the winning movies.
+ * <p>
+ * Writers report the producers they touched with {@link #touch(Collection)}; their intervals are recomputed once,
+ * right before the transaction commits. The rows of those producers are locked first, so two transactions
+ * touching the same producer recompute its intervals one after the other and the second one sees the wins
+ * committed by the first.
+ * <p>
+ * That costs a lock, a delete and an insert per writing transaction, so the table is only maintained while the
+ * {@link MaterializedAwardIntervalEngine} serves the awards, or when {@code outsera.awards.materialize-intervals}
+ * forces it. Otherwise every method is a no-op and the table goes stale, which is why {@link #refreshAll()} runs
+ * once at every startup.
+ */
+@Slf4j
+@Component
+public class ProducerWinIntervalRefresher {
+
+    private static final String INSERT_INTERVALS = """
+            INSERT INTO producer_win_interval (producer_id, gap_index, win_interval, previous_win, following_win)
+            SELECT producer_id, gap_index, following_win - previous_win, previous_win, following_win
+            FROM (
+                SELECT mp.producer_id,
+                       ROW_NUMBER() OVER (PARTITION BY mp.producer_id ORDER BY m.release_year) AS gap_index,
+                       LAG(m.release_year) OVER (PARTITION BY mp.producer_id ORDER BY m.release_year) AS previous_win,
+                       m.release_year AS following_win
+                FROM movie_producer mp
+                JOIN movie m ON m.id = mp.movie_id
+                WHERE m.winner = true %s
+            ) wins
+            WHERE previous_win IS NOT NULL
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final boolean maintained;
+
+    public ProducerWinIntervalRefresher(NamedParameterJdbcTemplate jdbcTemplate,
+                                        @Value("${outsera.awards.engine:index}") String engineName,
+                                        @Value("${outsera.awards.materialize-intervals:false}") boolean materializeIntervals) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maintained = materializeIntervals || MaterializedAwardIntervalEngine.NAME.equals(engineName);
+    }
+
+
+    /**
+     * Schedules the given producers for a refresh when the current transaction commits.
+     */
+    public void touch(Collection<Long> producerIds) {
+        if (!maintained || producerIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Producer win intervals can only be refreshed within a transaction");
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> touched = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (touched == null) {
+            Set<Long> producers = new HashSet<>();
+            touched = producers;
+            TransactionSynchronizationManager.bindResource(this, producers);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    refresh(producers);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProducerWinIntervalRefresher.this);
+                }
+            });
+        }
+        for (Long producerId : producerIds) {
+            if (producerId != null) {
+                touched.add(producerId);
+            }
+        }
+    }
+
+    /**
+     * Recomputes the intervals of the given producers from the movies as seen by the current transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Collection<Long> producerIds) {
+        if (!maintained || producerIds.isEmpty()) {
+            return;
+        }
+        // Pending movie changes have to reach the database before the intervals are read back from it
+        entityManager.flush();
+
+        // Always locked in id order, so concurrent refreshes cannot deadlock on each other
+        List<Long> ids = List.copyOf(new TreeSet<>(producerIds));
+        MapSqlParameterSource parameters = new MapSqlParameterSource("ids", ids);
+        jdbcTemplate.queryForList("SELECT id FROM producer WHERE id IN (:ids) ORDER BY id FOR UPDATE", parameters, Long.class);
+
+        jdbcTemplate.update("DELETE FROM producer_win_interval WHERE producer_id IN (:ids)", parameters);
+        jdbcTemplate.update(INSERT_INTERVALS.formatted("AND mp.producer_id IN (:ids)"), parameters);
+    }
+
+    /**
+     * Rebuilds the whole table, for data written without going through {@link #refresh(Collection)}: restored
+     * snapshots, or a database written while the table was not maintained.
+     */
+    @Transactional
+    public void refreshAll() {
+        if (!maintained) {
+            return;
+        }
+        entityManager.flush();
+        jdbcTemplate.getJdbcTemplate().queryForList("SELECT id FROM producer ORDER BY id FOR UPDATE", Long.class);
+        jdbcTemplate.getJdbcTemplate().update("DELETE FROM producer_win_interval");
+        int rows = jdbcTemplate.getJdbcTemplate().update(INSERT_INTERVALS.formatted(""));
+        log.info("Materialized {} producer win intervals", rows);
+    }
+}
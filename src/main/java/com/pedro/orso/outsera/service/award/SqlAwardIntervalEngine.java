@@ -0,0 +1,69 @@
+package com.pedro.orso.outsera.service.award;
+
+import com.pedro.orso.outsera.repository.ProducerRepository;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Runs the window function query of {@link ProducerRepository#getProducersWithMinAndMaxIntervals()} on every
+ * call. Slowest of the engines, kept as the reference the others are checked against.
+ */
+@Component
+@RequiredArgsConstructor
+public class SqlAwardIntervalEngine implements AwardIntervalEngine {
+
+    private final ProducerRepository producerRepository;
+
+    @Override
+    public String name() {
+        return "sql";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProducerIntervalResponseDTO getMinAndMaxIntervals(LongConsumer rowsScanned) {
+        List<Object[]> results = producerRepository.getProducersWithMinAndMaxIntervals();
+        rowsScanned.accept(results.size());
+
+        List<ProducerIntervalDTO> min = new ArrayList<>();
+        List<ProducerIntervalDTO> max = new ArrayList<>();
+        int minInterval = Integer.MAX_VALUE;
+        int maxInterval = Integer.MIN_VALUE;
+        for (Object[] row : results) {
+            ProducerIntervalDTO dto = new ProducerIntervalDTO();
+            dto.setProducer((String) row[0]);
+            dto.setInterval(((Number) row[1]).intValue());
+            dto.setPreviousWin(((Number) row[2]).intValue());
+            dto.setFollowingWin(((Number) row[3]).intValue());
+
+            if (dto.getInterval() < minInterval) {
+                minInterval = dto.getInterval();
+                min.clear();
+            }
+            if (dto.getInterval() == minInterval) {
+                min.add(dto);
+            }
+            if (dto.getInterval() > maxInterval) {
+                maxInterval = dto.getInterval();
+                max.clear();
+            }
+            if (dto.getInterval() == maxInterval) {
+                max.add(dto);
+            }
+        }
+        min.sort(RESULT_ORDER);
+        max.sort(RESULT_ORDER);
+
+        ProducerIntervalResponseDTO response = new ProducerIntervalResponseDTO();
+        response.setMin(min);
+        response.setMax(max);
+        return response;
+    }
+}
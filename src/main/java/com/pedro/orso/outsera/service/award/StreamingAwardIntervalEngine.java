@@ -0,0 +1,95 @@
+package com.pedro.orso.outsera.service.award;
+
+import com.pedro.orso.outsera.domain.Producer;
+import com.pedro.orso.outsera.repository.ProducerRepository;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Single pass over the winning {@code (producer_id, release_year)} pairs, read in producer and year order through
+ * a forward only cursor. Consecutive rows of the same producer are one interval, fed to {@link IntervalCandidates}
+ * as primitives; nothing else is kept, so memory stays flat whatever the number of winners. Names are only loaded
+ * for the producers that made it into the result.
+ */
+@Component
+public class StreamingAwardIntervalEngine implements AwardIntervalEngine {
+
+    static final String WINNING_YEARS_SQL = """
+            SELECT mp.producer_id, m.release_year
+            FROM movie_producer mp
+            JOIN movie m ON m.id = mp.movie_id
+            WHERE m.winner = true
+            ORDER BY mp.producer_id, m.release_year
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProducerRepository producerRepository;
+
+    @Value("${outsera.awards.fetch-size:1000}")
+    private int fetchSize;
+
+    public StreamingAwardIntervalEngine(JdbcTemplate jdbcTemplate, ProducerRepository producerRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.producerRepository = producerRepository;
+    }
+
+    @Override
+    public String name() {
+        return "streaming";
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProducerIntervalResponseDTO getMinAndMaxIntervals(LongConsumer rowsScanned) {
+        IntervalScanner scanner = new IntervalScanner();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(WINNING_YEARS_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, scanner);
+        rowsScanned.accept(scanner.rows);
+        return scanner.candidates.toResponse(producerNames(scanner.candidates));
+    }
+
+    private Map<Long, String> producerNames(IntervalCandidates candidates) {
+        Map<Long, String> names = new HashMap<>();
+        for (Producer producer : producerRepository.findAllById(candidates.producerIds())) {
+            names.put(producer.getId(), producer.getName());
+        }
+        return names;
+    }
+
+    private static final class IntervalScanner implements RowCallbackHandler {
+
+        private final IntervalCandidates candidates = new IntervalCandidates();
+        private long producerId = -1;
+        private int previousYear;
+        private boolean hasPrevious;
+        private long rows;
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            rows++;
+            long producer = rs.getLong(1);
+            int year = rs.getInt(2);
+            if (hasPrevious && producer == producerId) {
+                candidates.add(producer, previousYear, year);
+            }
+            producerId = producer;
+            previousYear = year;
+            hasPrevious = true;
+        }
+    }
+}
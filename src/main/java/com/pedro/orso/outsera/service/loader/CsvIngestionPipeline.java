@@ -0,0 +1,315 @@
+package com.pedro.orso.outsera.service.loader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Three stage importer for the movie list: the calling thread cuts the file into line aligned byte ranges, parser
+ * workers on virtual threads tokenize them into {@link MovieRow}s and a single persister commits them chunk by chunk.
+ * Files are memory mapped so chunks are views over the mapping, other resources are read block by block.
+ * <p>
+ * Stages are connected by bounded queues, so a slow database stalls the parsers and the reader instead of piling
+ * chunks up in memory; a parser also waits before handing over a chunk too far ahead of the next one to commit, so
+ * the chunks held to restore file order are bounded too. Only the persister resolves names, which keeps producer
+ * and studio identity consistent whatever the number of parsers, and chunks are committed in file order. A chunk
+ * that fails to be written is logged and skipped, everything committed before and after it is kept. A chunk that
+ * fails to be parsed is a bug rather than bad data, since bad rows are only rejected: nothing is committed after it
+ * and the load fails.
+ */
+@Slf4j
+@Component
+public class CsvIngestionPipeline {
+
+    // Largest region mapped at once, FileChannel#map cannot go past Integer.MAX_VALUE
+    private static final long MAX_MAPPING = 1L << 30;
+
+    private static final ByteChunk NO_MORE_BYTES = new ByteChunk(-1, ByteBuffer.allocate(0));
+    private static final ParsedChunk NO_MORE_ROWS = new ParsedChunk(-1, List.of(), 0, null);
+
+    private final MovieChunkWriter movieChunkWriter;
+    private final LoaderMetrics loaderMetrics;
+
+    @Value("${outsera.loader.chunk-bytes:262144}")
+    private int chunkBytes;
+
+    @Value("${outsera.loader.parser-threads:0}")
+    private int parserThreads;
+
+    @Value("${outsera.loader.queue-capacity:4}")
+    private int queueCapacity;
+
+    public CsvIngestionPipeline(MovieChunkWriter movieChunkWriter, LoaderMetrics loaderMetrics) {
+        this.movieChunkWriter = movieChunkWriter;
+        this.loaderMetrics = loaderMetrics;
+    }
+
+    public LoadReport load(Resource source) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        int parsers = parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+
+        BlockingQueue<ByteChunk> byteChunks = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<ParsedChunk> parsedChunks = new ArrayBlockingQueue<>(queueCapacity);
+        ReorderWindow window = new ReorderWindow(parsers + queueCapacity);
+        RejectedLines rejectedLines = new RejectedLines();
+        Persister persister = new Persister(parsedChunks, window, parsers, movieChunkWriter.openDictionary());
+
+        try (ExecutorService workers = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("csv-", 0).factory())) {
+            workers.submit(persister);
+            for (int i = 0; i < parsers; i++) {
+                workers.submit(() -> parse(byteChunks, parsedChunks, window, rejectedLines));
+            }
+            try {
+                if (source.isFile()) {
+                    readMapped(source.getFile().toPath(), byteChunks);
+                } else {
+                    readStream(source, byteChunks);
+                }
+            } finally {
+                for (int i = 0; i < parsers; i++) {
+                    byteChunks.put(NO_MORE_BYTES);
+                }
+            }
+        }
+
+        if (persister.failure != null) {
+            throw new IllegalStateException("Could not parse chunk " + persister.failedIndex + " of "
+                    + source.getDescription(), persister.failure);
+        }
+        LoadReport report = new LoadReport(persister.rows, persister.rejectedRows, persister.chunks,
+                persister.failedChunks, persister.dictionary.producerCount(), persister.dictionary.studioCount(),
+                System.nanoTime() - start);
+        loaderMetrics.finished(report.rowsPerSecond());
+        return report;
+    }
+
+    private void readMapped(Path path, BlockingQueue<ByteChunk> byteChunks) throws IOException, InterruptedException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long regionStart = 0;
+            long index = 0;
+
+            while (regionStart < size) {
+                int regionSize = (int) Math.min(MAX_MAPPING, size - regionStart);
+                boolean lastRegion = regionStart + regionSize == size;
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, regionStart, regionSize);
+
+                int position = 0;
+                while (position < regionSize) {
+                    int target = (int) Math.min(position + (long) chunkBytes, regionSize);
+                    int end = target == regionSize && lastRegion ? regionSize : nextLine(region, target - 1, regionSize);
+                    if (end > regionSize) {
+                        if (!lastRegion) {
+                            // The line goes on in the next region
+                            break;
+                        }
+                        // No line break left, the file ends without one
+                        end = regionSize;
+                    }
+                    byteChunks.put(new ByteChunk(index++, region.slice(position, end - position)));
+                    position = end;
+                }
+                if (lastRegion) {
+                    break;
+                }
+                if (position == 0) {
+                    throw new IOException("Line longer than " + MAX_MAPPING + " bytes at offset " + regionStart);
+                }
+                regionStart += position;
+            }
+        }
+    }
+
+    private void readStream(Resource source, BlockingQueue<ByteChunk> byteChunks) throws IOException, InterruptedException {
+        try (InputStream input = source.getInputStream()) {
+            LineBlockReader reader = new LineBlockReader(input, chunkBytes);
+            long index = 0;
+            ByteBuffer block;
+            while ((block = reader.next()) != null) {
+                byteChunks.put(new ByteChunk(index++, block));
+            }
+        }
+    }
+
+    /**
+     * @return the position right after the first line break at or after {@code from}, or {@code limit + 1} if none.
+     */
+    private static int nextLine(ByteBuffer buffer, int from, int limit) {
+        for (int i = Math.max(from, 0); i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return limit + 1;
+    }
+
+    private void parse(BlockingQueue<ByteChunk> byteChunks, BlockingQueue<ParsedChunk> parsedChunks,
+                       ReorderWindow window, RejectedLines rejectedLines) {
+        MovieRowParser parser = new MovieRowParser(rejectedLines);
+        try {
+            ByteChunk chunk;
+            while ((chunk = byteChunks.take()) != NO_MORE_BYTES) {
+                ParsedChunk parsed;
+                try {
+                    List<MovieRow> rows = new ArrayList<>();
+                    long start = System.nanoTime();
+                    int rejected = parser.parse(chunk.bytes(), chunk.index() == 0, rows::add);
+                    loaderMetrics.parsed(System.nanoTime() - start, rejected);
+                    parsed = new ParsedChunk(chunk.index(), rows, rejected, null);
+                } catch (RuntimeException e) {
+                    // Handed over in place of the chunk, the persister stops committing and the load fails
+                    parsed = new ParsedChunk(chunk.index(), List.of(), 0, e);
+                }
+                window.awaitTurn(chunk.index());
+                parsedChunks.put(parsed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Whatever happened, the persister must not wait for this parser forever
+            try {
+                parsedChunks.put(NO_MORE_ROWS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private record ByteChunk(long index, ByteBuffer bytes) {
+    }
+
+    /**
+     * @param failure why the chunk could not be parsed, {@code null} when it was.
+     */
+    private record ParsedChunk(long index, List<MovieRow> rows, int rejectedRows, RuntimeException failure) {
+    }
+
+    /**
+     * Lets parsers hand over a chunk only once it is less than {@code size} chunks ahead of the next one to commit,
+     * which bounds the chunks the persister holds to put them back in file order. The next chunk to commit is always
+     * let through, so the persister never waits on a parser that waits on it. A lock rather than synchronized, parsers
+     * are virtual threads.
+     */
+    private static final class ReorderWindow {
+
+        private final int size;
+        private final Lock lock = new ReentrantLock();
+        private final Condition advanced = lock.newCondition();
+        private long next;
+
+        ReorderWindow(int size) {
+            this.size = size;
+        }
+
+        void awaitTurn(long index) throws InterruptedException {
+            lock.lock();
+            try {
+                while (index >= next + size) {
+                    advanced.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void advance(long next) {
+            lock.lock();
+            try {
+                this.next = next;
+                advanced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private class Persister implements Runnable {
+
+        private final BlockingQueue<ParsedChunk> parsedChunks;
+        private final ReorderWindow window;
+        private final NameDictionary dictionary;
+        private int runningParsers;
+
+        // Chunks that finished parsing ahead of their turn, keyed by position in the file, at most the window size
+        private final TreeMap<Long, ParsedChunk> pending = new TreeMap<>();
+        private long nextIndex;
+
+        // First chunk that could not be parsed, nothing is committed from there on
+        private RuntimeException failure;
+        private long failedIndex;
+
+        private long rows;
+        private long rejectedRows;
+        private int chunks;
+        private int failedChunks;
+
+        Persister(BlockingQueue<ParsedChunk> parsedChunks, ReorderWindow window, int parsers,
+                  NameDictionary dictionary) {
+            this.parsedChunks = parsedChunks;
+            this.window = window;
+            this.runningParsers = parsers;
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (runningParsers > 0) {
+                    ParsedChunk chunk = parsedChunks.take();
+                    if (chunk == NO_MORE_ROWS) {
+                        runningParsers--;
+                        continue;
+                    }
+                    pending.put(chunk.index(), chunk);
+                    while (!pending.isEmpty() && pending.firstKey() == nextIndex) {
+                        write(pending.pollFirstEntry().getValue());
+                        nextIndex++;
+                    }
+                    window.advance(nextIndex);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void write(ParsedChunk chunk) {
+            if (chunk.failure() != null && failure == null) {
+                failure = chunk.failure();
+                failedIndex = chunk.index();
+            }
+            if (failure != null) {
+                return;
+            }
+            chunks++;
+            rejectedRows += chunk.rejectedRows();
+            try {
+                movieChunkWriter.write(chunk.rows(), dictionary);
+                rows += chunk.rows().size();
+                log.debug("Committed chunk {} with {} movies", chunk.index(), chunk.rows().size());
+            } catch (RuntimeException e) {
+                failedChunks++;
+                loaderMetrics.rejected(chunk.rows().size());
+                log.error("Chunk {} with {} movies could not be saved, skipping it", chunk.index(), chunk.rows().size(), e);
+            }
+        }
+    }
+}
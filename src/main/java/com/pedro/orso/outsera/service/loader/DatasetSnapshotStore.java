@@ -0,0 +1,332 @@
+package com.pedro.orso.outsera.service.loader;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary snapshot of the loaded dataset, so a restart with an unchanged movie list skips parsing altogether.
+ * <p>
+ * Layout (big endian): a header with magic, format version and the size and CRC32C of the source it was built
+ * from, then the producer and studio dictionaries ({@code id, name}), the movies ({@code id, year, winner, title})
+ * and the two join tables as pairs of positions into the movie list and the dictionaries. Strings are stored as
+ * an int length followed by their UTF-8 bytes. Snapshots are read through a memory mapping and written to a
+ * temporary file first, so a crash never leaves a truncated snapshot behind.
+ */
+@Slf4j
+@Component
+public class DatasetSnapshotStore {
+
+    private static final int MAGIC = 0x4F534E50; // "OSNP"
+    private static final int FORMAT_VERSION = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outsera.loader.batch-size:500}")
+    private int batchSize;
+
+    public DatasetSnapshotStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Fingerprint of a movie list, compared against the one stored in the snapshot.
+     */
+    public SourceFingerprint fingerprint(Resource source) throws IOException {
+        CRC32C crc = new CRC32C();
+        long size = 0;
+        if (source.isFile()) {
+            try (FileChannel channel = FileChannel.open(source.getFile().toPath(), StandardOpenOption.READ)) {
+                size = channel.size();
+                for (long offset = 0; offset < size; offset += Integer.MAX_VALUE) {
+                    crc.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(Integer.MAX_VALUE, size - offset)));
+                }
+            }
+        } else {
+            try (InputStream input = source.getInputStream()) {
+                byte[] block = new byte[64 * 1024];
+                int read;
+                while ((read = input.read(block)) > 0) {
+                    crc.update(block, 0, read);
+                    size += read;
+                }
+            }
+        }
+        return new SourceFingerprint(size, crc.getValue());
+    }
+
+    /**
+     * Inserts the snapshot content into the (empty) tables, in one transaction.
+     *
+     * @return {@code false} when there is no usable snapshot for this source or the tables already hold movies.
+     */
+    public boolean restore(Path snapshot, SourceFingerprint source) throws IOException {
+        if (!Files.isRegularFile(snapshot)) {
+            log.info("No dataset snapshot at {}", snapshot);
+            return false;
+        }
+        Long movies = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM movie", Long.class);
+        if (movies != null && movies > 0) {
+            log.info("Database already holds {} movies, not restoring the dataset snapshot", movies);
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                log.warn("Ignoring dataset snapshot {} written in an unknown format", snapshot);
+                return false;
+            }
+            SourceFingerprint written = new SourceFingerprint(buffer.getLong(), buffer.getLong());
+            if (!written.equals(source)) {
+                log.info("Dataset snapshot {} was built from another movie list, ignoring it", snapshot);
+                return false;
+            }
+            transactionTemplate.executeWithoutResult(status -> insert(buffer));
+            return true;
+        }
+    }
+
+    /**
+     * Dumps the current content of the tables into a snapshot of the given source.
+     */
+    public void write(Path snapshot, SourceFingerprint source) throws IOException {
+        Path directory = snapshot.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 64 * 1024))) {
+                transactionTemplate.executeWithoutResult(status -> dump(output, source));
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void dump(DataOutputStream output, SourceFingerprint source) {
+        Map<Long, Integer> producers = new HashMap<>();
+        Map<Long, Integer> studios = new HashMap<>();
+        Map<Long, Integer> movies = new HashMap<>();
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeLong(source.size());
+            output.writeLong(source.checksum());
+
+            output.writeInt(count("producer"));
+            jdbcTemplate.query("SELECT id, name FROM producer ORDER BY id", rs -> {
+                producers.put(rs.getLong(1), producers.size());
+                writeLong(output, rs.getLong(1));
+                writeString(output, rs.getString(2));
+            });
+
+            output.writeInt(count("studio"));
+            jdbcTemplate.query("SELECT id, name FROM studio ORDER BY id", rs -> {
+                studios.put(rs.getLong(1), studios.size());
+                writeLong(output, rs.getLong(1));
+                writeString(output, rs.getString(2));
+            });
+
+            output.writeInt(count("movie"));
+            jdbcTemplate.query("SELECT id, release_year, winner, title FROM movie ORDER BY id", rs -> {
+                movies.put(rs.getLong(1), movies.size());
+                writeLong(output, rs.getLong(1));
+                writeInt(output, rs.getInt(2));
+                writeByte(output, rs.getBoolean(3) ? 1 : 0);
+                writeString(output, rs.getString(4));
+            });
+
+            output.writeInt(count("movie_producer"));
+            jdbcTemplate.query("SELECT movie_id, producer_id FROM movie_producer", rs -> {
+                writeInt(output, movies.get(rs.getLong(1)));
+                writeInt(output, producers.get(rs.getLong(2)));
+            });
+
+            output.writeInt(count("movie_studio"));
+            jdbcTemplate.query("SELECT movie_id, studio_id FROM movie_studio", rs -> {
+                writeInt(output, movies.get(rs.getLong(1)));
+                writeInt(output, studios.get(rs.getLong(2)));
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void insert(ByteBuffer buffer) {
+        int producerCount = buffer.getInt();
+        long[] producerIds = new long[producerCount];
+        String[] producerNames = new String[producerCount];
+        for (int i = 0; i < producerCount; i++) {
+            producerIds[i] = buffer.getLong();
+            producerNames[i] = readString(buffer);
+        }
+        batchInsert("INSERT INTO producer (id, name) VALUES (?, ?)", producerCount, (ps, i) -> {
+            ps.setLong(1, producerIds[i]);
+            ps.setString(2, producerNames[i]);
+        });
+
+        int studioCount = buffer.getInt();
+        long[] studioIds = new long[studioCount];
+        String[] studioNames = new String[studioCount];
+        for (int i = 0; i < studioCount; i++) {
+            studioIds[i] = buffer.getLong();
+            studioNames[i] = readString(buffer);
+        }
+        batchInsert("INSERT INTO studio (id, name) VALUES (?, ?)", studioCount, (ps, i) -> {
+            ps.setLong(1, studioIds[i]);
+            ps.setString(2, studioNames[i]);
+        });
+
+        int movieCount = buffer.getInt();
+        long[] movieIds = new long[movieCount];
+        int[] years = new int[movieCount];
+        boolean[] winners = new boolean[movieCount];
+        String[] titles = new String[movieCount];
+        for (int i = 0; i < movieCount; i++) {
+            movieIds[i] = buffer.getLong();
+            years[i] = buffer.getInt();
+            winners[i] = buffer.get() == 1;
+            titles[i] = readString(buffer);
+        }
+        batchInsert("INSERT INTO movie (id, title, release_year, winner) VALUES (?, ?, ?, ?)", movieCount, (ps, i) -> {
+            ps.setLong(1, movieIds[i]);
+            ps.setString(2, titles[i]);
+            ps.setInt(3, years[i]);
+            ps.setBoolean(4, winners[i]);
+        });
+
+        insertJoinRows(buffer, "INSERT INTO movie_producer (movie_id, producer_id) VALUES (?, ?)", movieIds, producerIds);
+        insertJoinRows(buffer, "INSERT INTO movie_studio (movie_id, studio_id) VALUES (?, ?)", movieIds, studioIds);
+
+        restartSequence("producer_seq", producerIds);
+        restartSequence("studio_seq", studioIds);
+        restartSequence("movie_seq", movieIds);
+    }
+
+    private void insertJoinRows(ByteBuffer buffer, String sql, long[] movieIds, long[] otherIds) {
+        int count = buffer.getInt();
+        int[] movies = new int[count];
+        int[] others = new int[count];
+        for (int i = 0; i < count; i++) {
+            movies[i] = buffer.getInt();
+            others[i] = buffer.getInt();
+        }
+        batchInsert(sql, count, (ps, i) -> {
+            ps.setLong(1, movieIds[movies[i]]);
+            ps.setLong(2, otherIds[others[i]]);
+        });
+    }
+
+    /**
+     * Moves the sequence past the restored ids. Hibernate's pooled optimizer hands out the 50 ids up to the value it
+     * reads (see the allocation size on the entities), and the sequence never goes backwards so ids Hibernate may
+     * still hold in memory stay unique.
+     */
+    private void restartSequence(String sequence, long[] ids) {
+        long max = 0;
+        for (long id : ids) {
+            max = Math.max(max, id);
+        }
+        Long current = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+        long restart = Math.max(max, current == null ? 0 : current) + 50;
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+    }
+
+    private void batchInsert(String sql, int count, RowSetter setter) {
+        for (int offset = 0; offset < count; offset += batchSize) {
+            int from = offset;
+            int size = Math.min(batchSize, count - offset);
+            jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    setter.set(ps, from + i);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+
+    private int count(String table) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream output, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(output, bytes.length);
+        try {
+            output.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeByte(DataOutputStream output, int value) {
+        try {
+            output.writeByte(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeInt(DataOutputStream output, int value) {
+        try {
+            output.writeInt(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeLong(DataOutputStream output, long value) {
+        try {
+            output.writeLong(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public record SourceFingerprint(long size, long checksum) {
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement ps, int index) throws SQLException;
+    }
+}
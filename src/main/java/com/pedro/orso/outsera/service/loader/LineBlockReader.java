@@ -0,0 +1,52 @@
+package com.pedro.orso.outsera.service.loader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a stream in blocks of whole lines, carrying the partial last line of a block over to the next one.
+ * Memory stays at about one block whatever the size of the stream.
+ */
+public class LineBlockReader {
+
+    private final InputStream input;
+    private final int blockBytes;
+    private byte[] carry = new byte[0];
+    private boolean finished;
+
+    public LineBlockReader(InputStream input, int blockBytes) {
+        this.input = input;
+        this.blockBytes = blockBytes;
+    }
+
+    /**
+     * @return the next block, or {@code null} once the stream is exhausted.
+     */
+    public ByteBuffer next() throws IOException {
+        while (!finished) {
+            byte[] block = new byte[Math.max(blockBytes, carry.length * 2)];
+            System.arraycopy(carry, 0, block, 0, carry.length);
+            int length = carry.length + input.readNBytes(block, carry.length, block.length - carry.length);
+            finished = length < block.length;
+
+            int end = finished ? length : lastLineEnd(block, length);
+            carry = new byte[length - end];
+            System.arraycopy(block, end, carry, 0, carry.length);
+            if (end > 0) {
+                return ByteBuffer.wrap(block, 0, end).slice();
+            }
+            // A single line longer than the block, read on with a bigger one
+        }
+        return null;
+    }
+
+    private static int lastLineEnd(byte[] block, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (block[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,16 @@
+package com.pedro.orso.outsera.service.loader;
+
+/**
+ * Outcome of a load: rows written, rows rejected by the parser and chunks whose transaction failed.
+ */
+public record LoadReport(long rows, long rejectedRows, int chunks, int failedChunks, int producers, int studios,
+                         long elapsedNanos) {
+
+    public long elapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public long rowsPerSecond() {
+        return elapsedNanos == 0 ? rows : Math.round(rows * 1_000_000_000d / elapsedNanos);
+    }
+}
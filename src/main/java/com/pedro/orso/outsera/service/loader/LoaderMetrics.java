@@ -0,0 +1,74 @@
+package com.pedro.orso.outsera.service.loader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Meters of the startup load and of the import endpoint: time spent per phase, parsing the lines, resolving the
+ * producer and studio names and persisting the movies, rows written and rejected, and the throughput of the last
+ * load.
+ */
+@Component
+public class LoaderMetrics {
+
+    private final Timer parse;
+    private final Timer resolve;
+    private final Timer persist;
+    private final Counter written;
+    private final Counter rejected;
+    private final AtomicLong rowsPerSecond = new AtomicLong();
+
+    public LoaderMetrics(MeterRegistry meterRegistry) {
+        this.parse = phase("parse", meterRegistry);
+        this.resolve = phase("resolve", meterRegistry);
+        this.persist = phase("persist", meterRegistry);
+        this.written = rows("written", meterRegistry);
+        this.rejected = rows("rejected", meterRegistry);
+        Gauge.builder("outsera.loader.throughput", rowsPerSecond, AtomicLong::get)
+                .description("Rows per second of the last load or import")
+                .baseUnit("rows")
+                .register(meterRegistry);
+    }
+
+    public void parsed(long nanos, long rejectedRows) {
+        parse.record(nanos, TimeUnit.NANOSECONDS);
+        rejected.increment(rejectedRows);
+    }
+
+    /**
+     * A committed chunk, {@code resolveNanos} of its {@code totalNanos} spent resolving names.
+     */
+    public void written(long rows, long resolveNanos, long totalNanos) {
+        resolve.record(resolveNanos, TimeUnit.NANOSECONDS);
+        persist.record(totalNanos - resolveNanos, TimeUnit.NANOSECONDS);
+        written.increment(rows);
+    }
+
+    public void rejected(long rows) {
+        rejected.increment(rows);
+    }
+
+    public void finished(long rowsPerSecond) {
+        this.rowsPerSecond.set(rowsPerSecond);
+    }
+
+    private static Timer phase(String phase, MeterRegistry meterRegistry) {
+        return Timer.builder("outsera.loader.phase")
+                .description("Time spent per chunk in each loader phase")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+
+    private static Counter rows(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("outsera.loader.rows")
+                .description("Movie rows loaded or imported")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
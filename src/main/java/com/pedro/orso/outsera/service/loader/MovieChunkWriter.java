@@ -0,0 +1,239 @@
+package com.pedro.orso.outsera.service.loader;
+
+import com.pedro.orso.outsera.diagnostics.LoaderChunkEvent;
+import com.pedro.orso.outsera.domain.Movie;
+import com.pedro.orso.outsera.domain.Producer;
+import com.pedro.orso.outsera.domain.Studio;
+import com.pedro.orso.outsera.repository.MovieRepository;
+import com.pedro.orso.outsera.repository.ProducerRepository;
+import com.pedro.orso.outsera.repository.StudioRepository;
+import com.pedro.orso.outsera.service.AwardIntervalIndex;
+import com.pedro.orso.outsera.service.award.ProducerWinIntervalRefresher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persistence stage of the loader: writes a chunk of rows in its own transaction, in JDBC batches.
+ */
+@Slf4j
+@Component
+public class MovieChunkWriter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final MovieRepository movieRepository;
+    private final ProducerRepository producerRepository;
+    private final StudioRepository studioRepository;
+    private final AwardIntervalIndex awardIntervalIndex;
+    private final ProducerWinIntervalRefresher producerWinIntervalRefresher;
+    private final LoaderMetrics loaderMetrics;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Rows persisted between two flushes, also used as the JDBC batch size of the load.
+     */
+    @Value("${outsera.loader.batch-size:500}")
+    private int batchSize;
+
+    public MovieChunkWriter(MovieRepository movieRepository, ProducerRepository producerRepository,
+                            StudioRepository studioRepository, AwardIntervalIndex awardIntervalIndex,
+                            ProducerWinIntervalRefresher producerWinIntervalRefresher, LoaderMetrics loaderMetrics,
+                            PlatformTransactionManager transactionManager) {
+        this.movieRepository = movieRepository;
+        this.producerRepository = producerRepository;
+        this.studioRepository = studioRepository;
+        this.awardIntervalIndex = awardIntervalIndex;
+        this.producerWinIntervalRefresher = producerWinIntervalRefresher;
+        this.loaderMetrics = loaderMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Seeds a dictionary with the producers and studios already in the database.
+     */
+    public NameDictionary openDictionary() {
+        return transactionTemplate.execute(status ->
+                new NameDictionary(producerRepository.findAll(), studioRepository.findAll()));
+    }
+
+    /**
+     * Writes and commits the rows. On failure nothing of the chunk is kept, dictionary included.
+     */
+    public void write(List<MovieRow> rows, NameDictionary dictionary) {
+        LoaderChunkEvent event = new LoaderChunkEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long[] resolveNanos = new long[1];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                int written = 0;
+                Set<Long> winningProducers = new HashSet<>();
+                for (MovieRow row : rows) {
+                    Movie movie = new Movie();
+                    movie.setTitle(row.title());
+                    movie.setReleaseYear(row.releaseYear());
+                    long resolveStart = System.nanoTime();
+                    movie.setStudios(resolveStudios(row.studios(), dictionary));
+                    movie.setProducers(resolveProducers(row.producers(), dictionary));
+                    resolveNanos[0] += System.nanoTime() - resolveStart;
+                    movie.setWinner(row.winner());
+
+                    entityManager.persist(movie);
+                    log.debug("Saved movie: {}", movie.getTitle());
+                    if (movie.isWinner()) {
+                        addIds(movie.getProducers(), winningProducers);
+                    }
+
+                    if (++written % batchSize == 0) {
+                        flush();
+                    }
+                }
+                flush();
+                producerWinIntervalRefresher.touch(winningProducers);
+            });
+        } catch (RuntimeException e) {
+            commitEvent(event, "load", rows, dictionary, false);
+            dictionary.rollback();
+            throw e;
+        }
+        commitEvent(event, "load", rows, dictionary, true);
+        dictionary.commit();
+        loaderMetrics.written(rows.size(), resolveNanos[0], System.nanoTime() - start);
+    }
+
+    /**
+     * Writes and commits the rows, updating the movies that already exist with the same title and year instead of
+     * inserting them again. On failure nothing of the chunk is kept, dictionary included.
+     */
+    public UpsertCounts upsert(List<MovieRow> rows, NameDictionary dictionary) {
+        LoaderChunkEvent event = new LoaderChunkEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long[] resolveNanos = new long[1];
+        UpsertCounts counts;
+        try {
+            counts = transactionTemplate.execute(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                Map<String, Movie> movies = new HashMap<>();
+                for (Movie movie : movieRepository.findByTitleIn(rows.stream().map(MovieRow::title).toList())) {
+                    movies.putIfAbsent(key(movie.getTitle(), movie.getReleaseYear()), movie);
+                }
+
+                int inserted = 0;
+                List<Movie> updated = new ArrayList<>();
+                Set<Long> touchedProducers = new HashSet<>();
+                for (MovieRow row : rows) {
+                    Movie movie = movies.get(key(row.title(), row.releaseYear()));
+                    if (movie == null) {
+                        movie = new Movie();
+                        movie.setTitle(row.title());
+                        movie.setReleaseYear(row.releaseYear());
+                        movies.put(key(row.title(), row.releaseYear()), movie);
+                        inserted++;
+                    } else {
+                        updated.add(movie);
+                        if (movie.isWinner()) {
+                            addIds(movie.getProducers(), touchedProducers);
+                        }
+                    }
+                    long resolveStart = System.nanoTime();
+                    movie.setStudios(resolveStudios(row.studios(), dictionary));
+                    movie.setProducers(resolveProducers(row.producers(), dictionary));
+                    resolveNanos[0] += System.nanoTime() - resolveStart;
+                    movie.setWinner(row.winner());
+                    if (movie.isWinner()) {
+                        addIds(movie.getProducers(), touchedProducers);
+                    }
+                    if (movie.getId() == null) {
+                        entityManager.persist(movie);
+                    }
+                }
+                entityManager.flush();
+                // New movies reach the index through the entity listener, changed producers do not fire @PostUpdate
+                updated.forEach(awardIntervalIndex::upsert);
+                producerWinIntervalRefresher.touch(touchedProducers);
+                return new UpsertCounts(inserted, updated.size());
+            });
+        } catch (RuntimeException e) {
+            commitEvent(event, "import", rows, dictionary, false);
+            dictionary.rollback();
+            throw e;
+        }
+        commitEvent(event, "import", rows, dictionary, true);
+        dictionary.commit();
+        loaderMetrics.written(rows.size(), resolveNanos[0], System.nanoTime() - start);
+        return counts;
+    }
+
+    // Before the dictionary commit or rollback, which forgets what the chunk created
+    private static void commitEvent(LoaderChunkEvent event, String operation, List<MovieRow> rows,
+                                    NameDictionary dictionary, boolean committed) {
+        event.commit(operation, rows.size(), dictionary.pendingProducerCount(), dictionary.pendingStudioCount(),
+                committed);
+    }
+
+    private static void addIds(List<Producer> producers, Set<Long> ids) {
+        for (Producer producer : producers) {
+            ids.add(producer.getId());
+        }
+    }
+
+    private static String key(String title, int releaseYear) {
+        return releaseYear + ";" + title;
+    }
+
+    /**
+     * Sends the pending batch and empties the persistence context. Dictionary entries become detached, which is
+     * fine since later movies only need their ids to write the join rows.
+     */
+    private void flush() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private List<Producer> resolveProducers(List<String> names, NameDictionary dictionary) {
+        List<Producer> producers = new ArrayList<>(names.size());
+        for (String name : names) {
+            producers.add(dictionary.producer(name, newName -> {
+                Producer producer = new Producer();
+                producer.setName(newName);
+                entityManager.persist(producer);
+                log.debug("Created new Producer: {}", newName);
+                return producer;
+            }));
+        }
+        return producers;
+    }
+
+    private List<Studio> resolveStudios(List<String> names, NameDictionary dictionary) {
+        List<Studio> studios = new ArrayList<>(names.size());
+        for (String name : names) {
+            studios.add(dictionary.studio(name, newName -> {
+                Studio studio = new Studio();
+                studio.setName(newName);
+                entityManager.persist(studio);
+                log.debug("Created new studio: {}", newName);
+                return studio;
+            }));
+        }
+        return studios;
+    }
+
+    public record UpsertCounts(int inserted, int updated) {
+    }
+}
@@ -0,0 +1,262 @@
+package com.pedro.orso.outsera.service.loader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Byte level tokenizer for the {@code year;title;studios;producers;winner} layout, working straight on a (usually
+ * memory mapped) {@link ByteBuffer} holding whole lines.
+ * <p>
+ * {@link #next()} only records where the fields of the current line start and end; the year and the winner flag
+ * are read from the bytes and only titles and names are turned into strings. Studios are split on {@code ,} and
+ * producers on {@code ,} and {@code " and "}, the same way {@link MovieRowParser} does with regular expressions.
+ * Quoting is not handled here: lines containing a {@code "} are reported by {@link #isQuoted()} so the caller can
+ * hand {@link #line()} to {@link MovieRowParser} instead.
+ * <p>
+ * Not thread safe, each worker owns its instance.
+ */
+public class MovieCsvTokenizer {
+
+    private static final int FIELDS = 5;
+    private static final byte SEPARATOR = ';';
+    private static final byte[] AND = " and ".getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+
+    // Start and end (exclusive) of each field of the current line, relative to the buffer
+    private final int[] fieldStart = new int[FIELDS];
+    private final int[] fieldEnd = new int[FIELDS];
+    private int fieldCount;
+    private int lineStart;
+    private int lineEnd;
+    private boolean quoted;
+
+    // Reused to decode names without going through an intermediate buffer per value
+    private byte[] scratch = new byte[256];
+
+    public MovieCsvTokenizer(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.limit = buffer.limit();
+    }
+
+    /**
+     * Moves to the next non blank line.
+     *
+     * @return {@code false} once the buffer is exhausted.
+     */
+    public boolean next() {
+        while (position < limit) {
+            lineStart = position;
+            fieldCount = 0;
+            quoted = false;
+            fieldStart[0] = position;
+            boolean blank = true;
+
+            int i = position;
+            for (; i < limit; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    break;
+                }
+                if (b == SEPARATOR) {
+                    closeField(i);
+                } else if (b == '"') {
+                    quoted = true;
+                }
+                if ((b & 0xff) > ' ') {
+                    blank = false;
+                }
+            }
+            closeField(i);
+            lineEnd = i;
+            position = i + 1;
+
+            if (!blank) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void closeField(int end) {
+        if (fieldCount < FIELDS) {
+            fieldEnd[fieldCount] = end;
+        }
+        fieldCount++;
+        if (fieldCount < FIELDS) {
+            fieldStart[fieldCount] = end + 1;
+        }
+    }
+
+    /**
+     * @return whether the current line has all the values of a movie.
+     */
+    public boolean isComplete() {
+        return fieldCount >= FIELDS;
+    }
+
+    /**
+     * @return whether the current line is the {@code year;title;...} header.
+     */
+    public boolean isHeader() {
+        int start = trimStart(fieldStart[0], fieldEnd[0]);
+        int end = trimEnd(start, fieldEnd[0]);
+        return end - start == 4
+                && (buffer.get(start) | 0x20) == 'y'
+                && (buffer.get(start + 1) | 0x20) == 'e'
+                && (buffer.get(start + 2) | 0x20) == 'a'
+                && (buffer.get(start + 3) | 0x20) == 'r';
+    }
+
+    public boolean isQuoted() {
+        return quoted;
+    }
+
+    /**
+     * The current line as a string, only meant for fallbacks and error messages.
+     */
+    public String line() {
+        int end = lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+        return decode(lineStart, end);
+    }
+
+    /**
+     * Reads the year digits straight from the buffer.
+     *
+     * @throws NumberFormatException when the year is not a number, like {@link Integer#parseInt(String)}.
+     */
+    public int year() {
+        int start = trimStart(fieldStart[0], fieldEnd[0]);
+        int end = trimEnd(start, fieldEnd[0]);
+        if (start == end) {
+            throw new NumberFormatException("Empty year");
+        }
+
+        boolean negative = false;
+        byte first = buffer.get(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+            if (start == end) {
+                throw new NumberFormatException("Invalid year: " + decode(start - 1, end));
+            }
+        }
+
+        int year = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid year: " + decode(start, end));
+            }
+            year = year * 10 + digit;
+        }
+        return negative ? -year : year;
+    }
+
+    public String title() {
+        int start = trimStart(fieldStart[1], fieldEnd[1]);
+        return decode(start, trimEnd(start, fieldEnd[1]));
+    }
+
+    public boolean winner() {
+        int start = trimStart(fieldStart[4], fieldEnd[4]);
+        int end = trimEnd(start, fieldEnd[4]);
+        return end - start == 3
+                && (buffer.get(start) | 0x20) == 'y'
+                && (buffer.get(start + 1) | 0x20) == 'e'
+                && (buffer.get(start + 2) | 0x20) == 's';
+    }
+
+    public List<String> studios() {
+        List<String> studios = new ArrayList<>(2);
+        int start = fieldStart[2];
+        int end = fieldEnd[2];
+        int tokenStart = start;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == ',') {
+                addName(studios, tokenStart, i);
+                tokenStart = i + 1;
+            }
+        }
+        addName(studios, tokenStart, end);
+        return studios;
+    }
+
+    public List<String> producers() {
+        List<String> producers = new ArrayList<>(2);
+        int start = fieldStart[3];
+        int end = fieldEnd[3];
+        int tokenStart = start;
+        int i = start;
+        while (i < end) {
+            if (buffer.get(i) == ',') {
+                addName(producers, tokenStart, i);
+                tokenStart = ++i;
+            } else if (matchesAnd(i, end)) {
+                addName(producers, tokenStart, i);
+                i += AND.length;
+                tokenStart = i;
+            } else {
+                i++;
+            }
+        }
+        addName(producers, tokenStart, end);
+        return producers;
+    }
+
+    /**
+     * Materializes the current line as a {@link MovieRow}. Only valid for complete, unquoted lines.
+     */
+    public MovieRow toRow() {
+        return new MovieRow(year(), title(), studios(), producers(), winner());
+    }
+
+    private boolean matchesAnd(int i, int end) {
+        if (end - i < AND.length) {
+            return false;
+        }
+        for (int j = 0; j < AND.length; j++) {
+            if (buffer.get(i + j) != AND[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addName(List<String> names, int start, int end) {
+        start = trimStart(start, end);
+        end = trimEnd(start, end);
+        if (start < end) {
+            names.add(decode(start, end));
+        }
+    }
+
+    // Same definition of white space as String#trim
+    private int trimStart(int start, int end) {
+        while (start < end && (buffer.get(start) & 0xff) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private int trimEnd(int start, int end) {
+        while (end > start && (buffer.get(end - 1) & 0xff) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
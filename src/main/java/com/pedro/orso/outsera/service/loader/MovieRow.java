@@ -0,0 +1,9 @@
+package com.pedro.orso.outsera.service.loader;
+
+import java.util.List;
+
+/**
+ * One parsed line of the movie list, with studio and producer names already split and trimmed.
+ */
+public record MovieRow(int releaseYear, String title, List<String> studios, List<String> producers, boolean winner) {
+}
@@ -0,0 +1,112 @@
+package com.pedro.orso.outsera.service.loader;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.ICSVParser;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Parses {@code year;title;studios;producers;winner} lines. Not thread safe, each worker owns its instance.
+ */
+@Slf4j
+public class MovieRowParser {
+
+    private final ICSVParser csvParser = new CSVParserBuilder().withSeparator(';').build();
+    private final RejectedLines rejectedLines;
+
+    public MovieRowParser(RejectedLines rejectedLines) {
+        this.rejectedLines = rejectedLines;
+    }
+
+    /**
+     * Parses a block of whole lines with a {@link MovieCsvTokenizer}, going through OpenCSV only for quoted lines.
+     *
+     * @param firstBlock whether the block starts the file, in which case a leading header line is skipped.
+     * @return the number of lines rejected.
+     */
+    public int parse(ByteBuffer lines, boolean firstBlock, Consumer<MovieRow> rows) {
+        MovieCsvTokenizer tokenizer = new MovieCsvTokenizer(lines);
+        int rejected = 0;
+        boolean first = firstBlock;
+        while (tokenizer.next()) {
+            if (first) {
+                first = false;
+                if (tokenizer.isHeader()) {
+                    continue;
+                }
+            }
+            try {
+                MovieRow row = null;
+                if (tokenizer.isQuoted()) {
+                    row = parse(tokenizer.line());
+                } else if (tokenizer.isComplete()) {
+                    row = tokenizer.toRow();
+                }
+                if (row != null) {
+                    rows.accept(row);
+                    continue;
+                }
+            } catch (IOException | RuntimeException e) {
+                // The line itself is logged by the rejection right below
+                log.debug("Could not parse line", e);
+            }
+            rejectedLines.reject("line", tokenizer.line());
+            rejected++;
+        }
+        return rejected;
+    }
+
+    /**
+     * @return the parsed row, or {@code null} when the line does not have all the values.
+     * @throws NumberFormatException when the year is not a number.
+     */
+    public MovieRow parse(String line) throws IOException {
+        String[] values = csvParser.parseLine(line);
+        // Checking if it has all values
+        if (values == null || values.length < 5) {
+            return null;
+        }
+
+        int year = Integer.parseInt(values[0].trim());
+        boolean winner = "yes".equalsIgnoreCase(values[4].trim());
+
+        return new MovieRow(year, values[1].trim(), splitStudios(values[2]), splitProducers(values[3]), winner);
+    }
+
+    public static List<String> splitProducers(String producersValue) {
+        List<String> producers = new ArrayList<>();
+        String[] producerNames = producersValue.split(",| and ");
+        for (String producerName : producerNames) {
+            String trimmedName = producerName.trim();
+            if (trimmedName.isEmpty()) {
+                continue;
+            }
+
+            // Handle multiple producers separated by ' and ' as well
+            String[] subProducerNames = trimmedName.split(" and ");
+            for (String subProducerName : subProducerNames) {
+                String finalName = subProducerName.trim();
+                if (!finalName.isEmpty()) {
+                    producers.add(finalName);
+                }
+            }
+        }
+        return producers;
+    }
+
+    public static List<String> splitStudios(String studiosValue) {
+        List<String> studios = new ArrayList<>();
+        for (String studioName : studiosValue.split(",")) {
+            String trimmedName = studioName.trim();
+            if (!trimmedName.isEmpty()) {
+                studios.add(trimmedName);
+            }
+        }
+        return studios;
+    }
+}
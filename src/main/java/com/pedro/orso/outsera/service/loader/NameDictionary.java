@@ -0,0 +1,76 @@
+package com.pedro.orso.outsera.service.loader;
+
+import com.pedro.orso.outsera.domain.Producer;
+import com.pedro.orso.outsera.domain.Studio;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Name -> entity dictionaries shared by every chunk of a load, so each producer and studio is inserted once.
+ * <p>
+ * Entries created by a chunk stay pending until the chunk commits; if it rolls back they are dropped again,
+ * otherwise later chunks would point at rows that were never written.
+ */
+public class NameDictionary {
+
+    private final Map<String, Producer> producers = new HashMap<>();
+    private final Map<String, Studio> studios = new HashMap<>();
+    private final List<String> pendingProducers = new ArrayList<>();
+    private final List<String> pendingStudios = new ArrayList<>();
+
+    public NameDictionary(List<Producer> existingProducers, List<Studio> existingStudios) {
+        existingProducers.forEach(producer -> producers.put(producer.getName(), producer));
+        existingStudios.forEach(studio -> studios.put(studio.getName(), studio));
+    }
+
+    public Producer producer(String name, Function<String, Producer> creator) {
+        return producers.computeIfAbsent(name, newName -> {
+            pendingProducers.add(newName);
+            return creator.apply(newName);
+        });
+    }
+
+    public Studio studio(String name, Function<String, Studio> creator) {
+        return studios.computeIfAbsent(name, newName -> {
+            pendingStudios.add(newName);
+            return creator.apply(newName);
+        });
+    }
+
+    public int producerCount() {
+        return producers.size();
+    }
+
+    public int studioCount() {
+        return studios.size();
+    }
+
+    /**
+     * Producers created since the last commit or rollback.
+     */
+    int pendingProducerCount() {
+        return pendingProducers.size();
+    }
+
+    /**
+     * Studios created since the last commit or rollback.
+     */
+    int pendingStudioCount() {
+        return pendingStudios.size();
+    }
+
+    void commit() {
+        pendingProducers.clear();
+        pendingStudios.clear();
+    }
+
+    void rollback() {
+        pendingProducers.forEach(producers::remove);
+        pendingStudios.forEach(studios::remove);
+        commit();
+    }
+}
@@ -0,0 +1,73 @@
+package com.pedro.orso.outsera.service.loader;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs the lines rejected by one load or import. Only the first few go to WARN, the rest to DEBUG, so a malformed
+ * upload cannot flood the logs; the content is truncated and its control characters escaped, so it cannot forge
+ * log lines either. Safe to share between parser threads.
+ */
+@Slf4j
+public class RejectedLines {
+
+    static final int DEFAULT_SAMPLE_SIZE = 10;
+    static final int MAX_LOGGED_LENGTH = 200;
+
+    private final int sampleSize;
+    private final AtomicLong count = new AtomicLong();
+
+    public RejectedLines() {
+        this(DEFAULT_SAMPLE_SIZE);
+    }
+
+    public RejectedLines(int sampleSize) {
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Counts a rejection, logged as {@code Rejected <what>: <content>}.
+     */
+    public void reject(String what, String content) {
+        long rejected = count.incrementAndGet();
+        if (rejected < sampleSize) {
+            log.warn("Rejected {}: {}", what, printable(content));
+        } else if (rejected == sampleSize) {
+            log.warn("Rejected {}: {} (further rejections are logged at DEBUG)", what, printable(content));
+        } else if (log.isDebugEnabled()) {
+            log.debug("Rejected {}: {}", what, printable(content));
+        }
+    }
+
+    public long count() {
+        return count.get();
+    }
+
+    static String printable(String content) {
+        if (content == null) {
+            return "null";
+        }
+        int length = Math.min(content.length(), MAX_LOGGED_LENGTH);
+        StringBuilder printable = new StringBuilder(length + 16);
+        for (int i = 0; i < length; i++) {
+            char c = content.charAt(i);
+            switch (c) {
+                case '\n' -> printable.append("\\n");
+                case '\r' -> printable.append("\\r");
+                case '\t' -> printable.append("\\t");
+                default -> {
+                    if (Character.isISOControl(c)) {
+                        printable.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        printable.append(c);
+                    }
+                }
+            }
+        }
+        if (content.length() > length) {
+            printable.append("... (").append(content.length()).append(" chars)");
+        }
+        return printable.toString();
+    }
+}
@@ -2,6 +2,9 @@ package com.pedro.orso.outsera.web.rest;
 
 import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
 import com.pedro.orso.outsera.service.AwardService;
+import com.pedro.orso.outsera.service.AwardService.VersionedIntervals;
+import com.pedro.orso.outsera.service.DatasetVersion;
+import com.pedro.orso.outsera.web.rest.util.ResponseBytesCache;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,39 +17,86 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 
 @Tag(name = "Award", description = "Awards Resource")
 @Slf4j
 @RestController
-@CrossOrigin
+@CrossOrigin(exposedHeaders = AwardResource.FRESHNESS_HEADER)
 @RequiredArgsConstructor
 @Validated
 public class AwardResource {
 
+    /**
+     * {@code fresh}, or {@code stale; age-ms=<n>} when the min and max intervals of a previous dataset version are
+     * served while the current ones are computed.
+     */
+    public static final String FRESHNESS_HEADER = "X-Result-Freshness";
+
     private static final String AWARDS_URI = "/v1/awards";
+    private static final String INTERVALS_URI = AWARDS_URI + "/intervals";
 
     private final AwardService awardService;
+    private final DatasetVersion datasetVersion;
+    private final ResponseBytesCache responseBytesCache;
 
     /**
      * {@code GET  /v1/awards} : Obtem o produtor com maior intervalo entre dois prêmios consecutivos, e o que
      * obteve dois prêmios mais rápido.
+     * <p>
+     * Com {@code top}, {@code fromYear} ou {@code toYear}: os {@code top} menores e maiores intervalos (empates com o
+     * último incluídos) cujas duas vitórias estão na janela de anos.
+     * <p>
+     * The JSON is encoded once per dataset version and parameters, then served from the {@link ResponseBytesCache}.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)},
-     * or with status {@code 404 (Not Found)}.
+     * @param top      how many of the shortest and longest intervals to return, 1 by default.
+     * @param fromYear first year of the window, open when absent.
+     * @param toYear   last year of the window, open when absent.
+     * @param request  the request, checked against the dataset version of the response.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and, without parameters, the
+     * {@value #FRESHNESS_HEADER} header,
+     * or with status {@code 400 (Bad Request)} if {@code top} is not positive or the window is empty,
+     * or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if {@code If-None-Match} holds the dataset version of the response.
      */
     @ApiOperation(value = "Obtem o produtor com maior intervalo entre dois prêmios consecutivos, e o que obteve dois prêmios mais rápido")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "award found", content = {
                     @Content(mediaType = "application/json", schema = @Schema(implementation = ProducerIntervalResponseDTO.class))
             }),
+            @ApiResponse(responseCode = "400", description = "Invalid top or year window", content = @Content),
             @ApiResponse(responseCode = "404", description = "Not found", content = @Content)
     })
-    @GetMapping(AWARDS_URI + "/intervals")
-    public ResponseEntity<ProducerIntervalResponseDTO> getProducersWithMinAndMaxInterval() {
-        ProducerIntervalResponseDTO response = awardService.getProducersWithMinAndMaxInterval();
-        return ResponseEntity.ok(response);
+    @GetMapping(INTERVALS_URI)
+    public ResponseEntity<byte[]> getProducersWithMinAndMaxInterval(
+            @RequestParam(required = false) Integer top,
+            @RequestParam(required = false) Integer fromYear,
+            @RequestParam(required = false) Integer toYear,
+            WebRequest request
+    ) {
+        if ((top != null && top < 1) || (fromYear != null && toYear != null && fromYear > toYear)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (top == null && fromYear == null && toYear == null) {
+            // Possibly the result of an older version, tagged with that version so clients revalidate it later
+            VersionedIntervals intervals = awardService.getMinAndMaxIntervals();
+            if (request.checkNotModified(DatasetVersion.etag(intervals.version()))) {
+                return null;
+            }
+            ResponseEntity<byte[]> response = responseBytesCache.respond(INTERVALS_URI, intervals.version(), request,
+                    () -> ResponseEntity.ok(intervals.response()));
+            return ResponseBytesCache.withHeader(response, FRESHNESS_HEADER,
+                    intervals.fresh() ? "fresh" : "stale; age-ms=" + intervals.staleMillis());
+        }
+        long version = datasetVersion.current();
+        if (request.checkNotModified(DatasetVersion.etag(version))) {
+            return null;
+        }
+        return responseBytesCache.respond(INTERVALS_URI, version, request, () ->
+                ResponseEntity.ok(awardService.getProducerIntervals(top == null ? 1 : top, fromYear, toYear)));
     }
 
 
@@ -1,38 +1,60 @@
 package com.pedro.orso.outsera.web.rest;
 
 
+import com.pedro.orso.outsera.service.DatasetVersion;
+import com.pedro.orso.outsera.service.MovieExportService;
+import com.pedro.orso.outsera.service.MovieImportService;
 import com.pedro.orso.outsera.web.rest.dto.MovieDTO;
+import com.pedro.orso.outsera.web.rest.util.KeysetCursor;
+import com.pedro.orso.outsera.web.rest.util.ResponseBytesCache;
 import com.pedro.orso.outsera.service.MovieService;
+import com.pedro.orso.outsera.web.rest.dto.MovieImportResultDTO;
+import com.pedro.orso.outsera.web.rest.filter.MovieCriteria;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springdoc.api.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.SortDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
 
 
 @Tag(name = "Movie", description = "Movie Resource")
 @Slf4j
 @RestController
-@CrossOrigin
+@CrossOrigin(exposedHeaders = KeysetCursor.NEXT_CURSOR_HEADER)
 @RequestMapping("/v1/movies")
 @RequiredArgsConstructor
 @Validated
 public class MovieResource {
 
     private final MovieService movieService;
+    private final MovieImportService movieImportService;
+    private final MovieExportService movieExportService;
+    private final DatasetVersion datasetVersion;
+    private final ResponseBytesCache responseBytesCache;
 
     /**
      * {@code POST  /v1/movies} : Create a new movie.
@@ -58,11 +80,83 @@ public class MovieResource {
         return ResponseEntity.created(location).body(result);
     }
 
+    /**
+     * {@code POST  /v1/movies/import} : Bulk import movies from a csv upload in the {@code movielist.csv} layout.
+     * Movies with the same title and year as an existing one update it.
+     *
+     * @param body the upload, read as it arrives.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the import counts in body.
+     */
+    @Operation(summary = "Bulk import movies from a csv upload")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload processed, see counts for rejected rows"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<MovieImportResultDTO> importMoviesCsv(InputStream body) throws IOException {
+        log.info("Request to import movies from csv");
+
+        return ResponseEntity.ok(movieImportService.importCsv(body));
+    }
+
+    /**
+     * {@code POST  /v1/movies/import} : Bulk import movies from a NDJSON upload, one movie per line.
+     *
+     * @param body the upload, read as it arrives.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the import counts in body.
+     */
+    @Operation(summary = "Bulk import movies from a NDJSON upload")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Upload processed, see counts for rejected rows"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    public ResponseEntity<MovieImportResultDTO> importMoviesNdjson(InputStream body) throws IOException {
+        log.info("Request to import movies from NDJSON");
+
+        return ResponseEntity.ok(movieImportService.importNdjson(body));
+    }
+
+    /**
+     * {@code GET  /v1/movies/export} : Streams the whole catalog in one response, read through database cursors
+     * and written as it is read, instead of paging through {@code GET /v1/movies}.
+     *
+     * @param format {@code ndjson}, one movie per line with the fields of {@code GET /v1/movies}, or {@code csv} in
+     *               the {@code movielist.csv} layout accepted by {@code POST /v1/movies/import}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the movies in body,
+     * or with status {@code 400 (Bad Request)} if the format is unknown.
+     */
+    @Operation(summary = "Streams every movie with its studios and producers")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catalog streamed", content = {
+                    @Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")
+            }),
+            @ApiResponse(responseCode = "400", description = "Unknown format", content = @Content)
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMovies(@RequestParam(defaultValue = "ndjson") String format) {
+        log.info("Request to export movies as {}", format);
+
+        return switch (format) {
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(output -> log.info("Exported {} movies", movieExportService.exportNdjson(output)));
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            ContentDisposition.attachment().filename("movielist.csv").build().toString())
+                    .body(output -> log.info("Exported {} movies", movieExportService.exportCsv(output)));
+            default -> ResponseEntity.badRequest().build();
+        };
+    }
+
     /**
      * {@code GET  /v1/movies/:id} : Get the movie by id.
      *
      * @param id the id of the movie to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 404 (Not Found)}.
+     * @param request the request, checked against the current dataset version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if {@code If-None-Match} holds the current dataset version.
      */
     @Operation(summary = "Retrieve a movie by its id")
     @ApiResponses(value = {
@@ -70,9 +164,13 @@ public class MovieResource {
             @ApiResponse(responseCode = "404", description = "Movie not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<MovieDTO> getMovie(@PathVariable Long id) {
+    public ResponseEntity<MovieDTO> getMovie(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get movie: {}", id);
 
+        if (request.checkNotModified(datasetVersion.etag())) {
+            return null;
+        }
+
         MovieDTO movieDto = movieService.getMovieById(id);
         if (movieDto == null) {
             log.warn("Movie with id {} not found", id);
@@ -82,22 +180,52 @@ public class MovieResource {
     }
 
     /**
-     * {@code GET  /v1/movies} : Get all movies.
+     * {@code GET  /v1/movies} : Get all movies, or those matching the criteria.
+     * <p>
+     * With {@code after} the listing is read by title and id from the given cursor, ignoring {@code page} and
+     * {@code sort}; an empty {@code after} starts from the first movie. The cursor of the next page comes back
+     * in the {@value KeysetCursor#NEXT_CURSOR_HEADER} header, absent on the last page.
+     * <p>
+     * Pages are encoded once per dataset version and parameters, then served from the {@link ResponseBytesCache}.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of movies in body.
+     * @param after    the cursor returned with the previous page.
+     * @param criteria the filters the movies must match, like {@code releaseYear.greaterThan=1990}.
+     * @param request  the request, checked against the current dataset version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of movies in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid,
+     * or with status {@code 304 (Not Modified)} if {@code If-None-Match} holds the current dataset version.
      */
     @Operation(summary = "Returns a list of movies")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "movies found", content = @Content(
+                    mediaType = "application/json", array = @ArraySchema(schema = @Schema(implementation = MovieDTO.class))))
+    })
     @GetMapping
-    public ResponseEntity<List<MovieDTO>> getMovies(
+    public ResponseEntity<byte[]> getMovies(
             @PageableDefault(size = 20)
-            @SortDefault(sort = "title", direction = Sort.Direction.ASC) Pageable pageable
+            @SortDefault(sort = "title", direction = Sort.Direction.ASC) Pageable pageable,
+            @RequestParam(required = false) String after,
+            @ParameterObject MovieCriteria criteria,
+            WebRequest request
     ) {
-        log.debug("REST request to get all movies");
+        log.debug("REST request to get movies by criteria: {}", criteria);
+
+        long version = datasetVersion.current();
+        if (request.checkNotModified(DatasetVersion.etag(version))) {
+            return null;
+        }
+
+        return responseBytesCache.respond("/v1/movies", version, request, () -> {
+            if (after != null) {
+                Slice<MovieDTO> result = movieService.getMoviesAfter(criteria, KeysetCursor.decode(after), pageable.getPageSize());
+                return KeysetCursor.toResponse(result, movie -> new KeysetCursor(movie.getTitle(), movie.getId()));
+            }
 
-        Page<MovieDTO> result = movieService.getAllMovies(pageable);
+            Slice<MovieDTO> result = movieService.getAllMovies(criteria, pageable);
 
-        return ResponseEntity.ok().body(result.getContent());
+            return ResponseEntity.ok().body(result.getContent());
+        });
     }
 
     /**
@@ -1,7 +1,9 @@
 package com.pedro.orso.outsera.web.rest;
 
+import com.pedro.orso.outsera.service.DatasetVersion;
 import com.pedro.orso.outsera.service.ProducerService;
 import com.pedro.orso.outsera.web.rest.dto.ProducerDto;
+import com.pedro.orso.outsera.web.rest.util.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -9,14 +11,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.SortDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
@@ -24,7 +27,7 @@ import java.util.List;
 @Tag(name = "Producer", description = "Producer Resource")
 @Slf4j
 @RestController
-@CrossOrigin
+@CrossOrigin(exposedHeaders = KeysetCursor.NEXT_CURSOR_HEADER)
 @RequiredArgsConstructor
 @Validated
 public class ProducerResource {
@@ -32,6 +35,7 @@ public class ProducerResource {
     private static final String PRODUCER_URI = "/v1/producers";
 
     private final ProducerService producerService;
+    private final DatasetVersion datasetVersion;
 
     /**
      * {@code POST  /v1/producers} : Create a new producer.
@@ -61,7 +65,9 @@ public class ProducerResource {
      * {@code GET  /v1/producers/:id} : Get the producer by id.
      *
      * @param id the id of the producer to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 404 (Not Found)}.
+     * @param request the request, checked against the current dataset version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if {@code If-None-Match} holds the current dataset version.
      */
     @Operation(summary = "Retrieve a producer by its id")
     @ApiResponses(value = {
@@ -70,10 +76,15 @@ public class ProducerResource {
     })
     @GetMapping(PRODUCER_URI + "/{id}")
     public ResponseEntity<ProducerDto> getProducer(
-            @PathVariable Long id
+            @PathVariable Long id,
+            WebRequest request
     ) {
         log.debug("REST request to get producer: {}", id);
 
+        if (request.checkNotModified(datasetVersion.etag())) {
+            return null;
+        }
+
         ProducerDto producerDto = producerService.getProducerById(id);
         if (producerDto == null) {
             log.warn("Producer with id {} not found", id);
@@ -84,19 +95,38 @@ public class ProducerResource {
 
     /**
      * {@code GET  /v1/producers} : Get all producers.
+     * <p>
+     * With {@code after} the listing is read by name and id from the given cursor, ignoring {@code page} and
+     * {@code sort}; an empty {@code after} starts from the first producer. The cursor of the next page comes back
+     * in the {@value KeysetCursor#NEXT_CURSOR_HEADER} header, absent on the last page.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of producers in body.
+     * @param after    the cursor returned with the previous page.
+     * @param request  the request, checked against the current dataset version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of producers in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid,
+     * or with status {@code 304 (Not Modified)} if {@code If-None-Match} holds the current dataset version.
      */
     @Operation(summary = "Returns a list of producers")
     @GetMapping(PRODUCER_URI)
     public ResponseEntity<List<ProducerDto>> getProducers(
             @PageableDefault(size = 20)
-            @SortDefault(sort = "name", direction = Sort.Direction.ASC) Pageable pageable
+            @SortDefault(sort = "name", direction = Sort.Direction.ASC) Pageable pageable,
+            @RequestParam(required = false) String after,
+            WebRequest request
     ) {
         log.debug("REST request to get all producers");
 
-        Page<ProducerDto> result = producerService.getAllProducers(pageable);
+        if (request.checkNotModified(datasetVersion.etag())) {
+            return null;
+        }
+
+        if (after != null) {
+            Slice<ProducerDto> result = producerService.getProducersAfter(KeysetCursor.decode(after), pageable.getPageSize());
+            return KeysetCursor.toResponse(result, producer -> new KeysetCursor(producer.getName(), producer.getId()));
+        }
+
+        Slice<ProducerDto> result = producerService.getAllProducers(pageable);
 
         return ResponseEntity.ok().body(result.getContent());
     }
@@ -1,7 +1,9 @@
 package com.pedro.orso.outsera.web.rest;
 
+import com.pedro.orso.outsera.service.DatasetVersion;
 import com.pedro.orso.outsera.service.StudioService;
 import com.pedro.orso.outsera.web.rest.dto.StudioDto;
+import com.pedro.orso.outsera.web.rest.util.KeysetCursor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -9,14 +11,15 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.SortDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
@@ -25,13 +28,14 @@ import java.util.List;
 @Tag(name = "Studio", description = "Studio Resource")
 @Slf4j
 @RestController
-@CrossOrigin
+@CrossOrigin(exposedHeaders = KeysetCursor.NEXT_CURSOR_HEADER)
 @RequestMapping("/v1/studios")
 @RequiredArgsConstructor
 @Validated
 public class StudioResource {
 
     private final StudioService studioService;
+    private final DatasetVersion datasetVersion;
 
     /**
      * {@code POST  /v1/studios} : Create a new studio.
@@ -61,7 +65,9 @@ public class StudioResource {
      * {@code GET  /v1/studios/:id} : Get the studio by id.
      *
      * @param id the id of the studio to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 404 (Not Found)}.
+     * @param request the request, checked against the current dataset version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} or {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if {@code If-None-Match} holds the current dataset version.
      */
     @Operation(summary = "Retrieve a studio by its id")
     @ApiResponses(value = {
@@ -69,9 +75,13 @@ public class StudioResource {
             @ApiResponse(responseCode = "404", description = "Studio not found")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<StudioDto> getStudio(@PathVariable Long id) {
+    public ResponseEntity<StudioDto> getStudio(@PathVariable Long id, WebRequest request) {
         log.debug("REST request to get studio: {}", id);
 
+        if (request.checkNotModified(datasetVersion.etag())) {
+            return null;
+        }
+
         StudioDto studioDto = studioService.getStudioById(id);
         if (studioDto == null) {
             log.warn("Studio with id {} not found", id);
@@ -82,19 +92,38 @@ public class StudioResource {
 
     /**
      * {@code GET  /v1/studios} : Get all studios.
+     * <p>
+     * With {@code after} the listing is read by name and id from the given cursor, ignoring {@code page} and
+     * {@code sort}; an empty {@code after} starts from the first studio. The cursor of the next page comes back
+     * in the {@value KeysetCursor#NEXT_CURSOR_HEADER} header, absent on the last page.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of studios in body.
+     * @param after    the cursor returned with the previous page.
+     * @param request  the request, checked against the current dataset version.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of studios in body,
+     * or with status {@code 400 (Bad Request)} if the cursor is not valid,
+     * or with status {@code 304 (Not Modified)} if {@code If-None-Match} holds the current dataset version.
      */
     @Operation(summary = "Returns a list of studios")
     @GetMapping
     public ResponseEntity<List<StudioDto>> getStudios(
             @PageableDefault(size = 20)
-            @SortDefault(sort = "name", direction = Sort.Direction.ASC) Pageable pageable
+            @SortDefault(sort = "name", direction = Sort.Direction.ASC) Pageable pageable,
+            @RequestParam(required = false) String after,
+            WebRequest request
     ) {
         log.debug("REST request to get all studios");
 
-        Page<StudioDto> result = studioService.getAllStudios(pageable);
+        if (request.checkNotModified(datasetVersion.etag())) {
+            return null;
+        }
+
+        if (after != null) {
+            Slice<StudioDto> result = studioService.getStudiosAfter(KeysetCursor.decode(after), pageable.getPageSize());
+            return KeysetCursor.toResponse(result, studio -> new KeysetCursor(studio.getName(), studio.getId()));
+        }
+
+        Slice<StudioDto> result = studioService.getAllStudios(pageable);
 
         return ResponseEntity.ok().body(result.getContent());
     }
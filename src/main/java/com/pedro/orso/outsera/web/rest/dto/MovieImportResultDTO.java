@@ -0,0 +1,20 @@
+package com.pedro.orso.outsera.web.rest.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class MovieImportResultDTO {
+
+    private long inserted;
+
+    private long updated;
+
+    private long rejected;
+
+    private long elapsedMillis;
+
+    private long rowsPerSecond;
+
+}
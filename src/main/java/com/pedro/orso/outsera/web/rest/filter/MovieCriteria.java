@@ -0,0 +1,19 @@
+package com.pedro.orso.outsera.web.rest.filter;
+
+import lombok.Data;
+
+/**
+ * Filters accepted by {@code GET /v1/movies}, bound from parameters such as {@code releaseYear.greaterThan=1990},
+ * {@code winner.equals=true} or {@code title.contains=star}. Every filter set must match.
+ */
+@Data
+public class MovieCriteria {
+
+    private LongFilter releaseYear;
+    private BooleanFilter winner;
+    private StringFilter title;
+
+    // Name of any of the studios or producers credited on the movie
+    private StringFilter studio;
+    private StringFilter producer;
+}
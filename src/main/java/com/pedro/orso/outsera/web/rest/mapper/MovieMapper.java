@@ -12,7 +12,15 @@ public interface MovieMapper {
     @Mapping(target = "producers", source = "producers")
     MovieDTO toDto(Movie movie);
 
+    /**
+     * Scalar fields only, for read paths that load the studios and producers themselves.
+     */
+    @Mapping(target = "studios", ignore = true)
+    @Mapping(target = "producers", ignore = true)
+    MovieDTO toSummaryDto(Movie movie);
+
     @Mapping(target = "studios", source = "studios")
     @Mapping(target = "producers", source = "producers")
+    @Mapping(target = "winnerWhenLoaded", ignore = true)
     Movie toEntity(MovieDTO movieDTO);
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.pedro.orso.outsera.web.rest.util;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position in a listing sorted by {@code (key, id)}: the sort key and id of the last element of the previous page.
+ * Clients only see it as an opaque token, passed back in the {@code after} parameter.
+ */
+public record KeysetCursor(String key, Long id) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public String encode() {
+        byte[] value = (id + ":" + key).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value);
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for an empty token, which asks for the first page.
+     * @throws InvalidCursorException when the token was not issued by {@link #encode()}.
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(':');
+            return new KeysetCursor(value.substring(separator + 1), Long.parseLong(value.substring(0, separator)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidCursorException(token);
+        }
+    }
+
+    /**
+     * The page content in body, with the cursor of the following page in the {@value #NEXT_CURSOR_HEADER} header
+     * when there is one.
+     */
+    public static <T> ResponseEntity<List<T>> toResponse(Slice<T> page, Function<T, KeysetCursor> cursorOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            T last = page.getContent().get(page.getNumberOfElements() - 1);
+            response.header(NEXT_CURSOR_HEADER, cursorOf.apply(last).encode());
+        }
+        return response.body(page.getContent());
+    }
+
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public static class InvalidCursorException extends RuntimeException {
+
+        public InvalidCursorException(String token) {
+            super("Invalid cursor: " + token);
+        }
+    }
+}
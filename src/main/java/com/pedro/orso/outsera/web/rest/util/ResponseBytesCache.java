@@ -0,0 +1,179 @@
+package com.pedro.orso.outsera.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Already encoded JSON of hot read responses, keyed by endpoint, parameters and dataset version, so repeated reads
+ * of unchanged data skip building the DTOs and serializing them. Bodies larger than
+ * {@code outsera.response-cache.gzip-min-size} are also kept gzipped and sent as is to clients accepting it.
+ * <p>
+ * The cache is bounded by the total size of the bodies; entries of old versions are never read again and just
+ * age out.
+ */
+@Component
+public class ResponseBytesCache {
+
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, EncodedResponse> cache;
+
+    @Value("${outsera.response-cache.gzip-min-size:1KB}")
+    private DataSize gzipMinSize;
+
+    public ResponseBytesCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                              @Value("${outsera.response-cache.max-size:32MB}") DataSize maxSize,
+                              @Value("${outsera.response-cache.expire-after-access:10m}") Duration expireAfterAccess) {
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, EncodedResponse response) -> response.weight())
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        // Same tag keys as the Spring caches, Prometheus rejects a meter name registered with different ones
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "responses",
+                "cache.manager", "responseBytesCache", "name", "responses");
+    }
+
+    /**
+     * The cached response of {@code endpoint} for the request parameters and {@code version}, or the one built by
+     * {@code response}, encoded and cached when it is a {@code 200 (OK)} with a body. Other responses are returned
+     * without their body.
+     */
+    public ResponseEntity<byte[]> respond(String endpoint, long version, WebRequest request,
+                                          Supplier<? extends ResponseEntity<?>> response) {
+        Key key = new Key(endpoint, parameters(request), version);
+        EncodedResponse encoded = cache.getIfPresent(key);
+        if (encoded == null) {
+            ResponseEntity<?> built = response.get();
+            if (built.getStatusCode().value() != 200 || built.getBody() == null) {
+                return ResponseEntity.status(built.getStatusCode()).headers(built.getHeaders()).build();
+            }
+            encoded = encode(built);
+            cache.put(key, encoded);
+        }
+        return encoded.toResponse(acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    /**
+     * Copy of a cached response with one more header, for values that change from one request to the next.
+     */
+    public static ResponseEntity<byte[]> withHeader(ResponseEntity<byte[]> response, String name, String value) {
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(name, value)
+                .body(response.getBody());
+    }
+
+    private EncodedResponse encode(ResponseEntity<?> response) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(response.getBody());
+            byte[] gzip = json.length >= gzipMinSize.toBytes() ? gzip(json) : null;
+            return new EncodedResponse(response.getHeaders(), json, gzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Parameters sorted by name, so the same query written in another order hits the same entry
+    private static String parameters(WebRequest request) {
+        StringBuilder parameters = new StringBuilder();
+        for (Map.Entry<String, String[]> parameter : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            parameters.append(parameter.getKey()).append('=').append(Arrays.toString(parameter.getValue())).append('&');
+        }
+        return parameters.toString();
+    }
+
+    /**
+     * Whether {@code Accept-Encoding} allows gzip, named or through {@code *}, with a quality above 0.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean accepted = quality(parts) > 0;
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return wildcard;
+    }
+
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q'
+                    && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private record Key(String endpoint, String parameters, long version) {
+    }
+
+    private record EncodedResponse(HttpHeaders headers, byte[] json, byte[] gzip) {
+
+        int weight() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+
+        ResponseEntity<byte[]> toResponse(boolean acceptsGzip) {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .headers(headers)
+                    .contentType(MediaType.APPLICATION_JSON);
+            if (gzip == null) {
+                return response.body(json);
+            }
+            response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzip);
+            }
+            return response.body(json);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.pedro.orso.outsera.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConnectionLimitingDataSourceTest {
+
+    @Test
+    public void testPermitIsReturnedOnceOnClose() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection first = mock(Connection.class);
+        when(target.getConnection()).thenReturn(first, mock(Connection.class));
+        ConnectionLimitingDataSource dataSource = new ConnectionLimitingDataSource(target, 1, Duration.ofMillis(50));
+
+        Connection connection = dataSource.getConnection();
+        assertThat(dataSource.active()).isEqualTo(1);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        connection.close();
+        connection.close();
+        verify(first).close();
+        assertThat(dataSource.active()).isZero();
+
+        dataSource.getConnection();
+        assertThat(dataSource.active()).isEqualTo(1);
+    }
+}
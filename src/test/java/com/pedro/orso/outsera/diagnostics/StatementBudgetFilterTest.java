@@ -0,0 +1,82 @@
+package com.pedro.orso.outsera.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class StatementBudgetFilterTest {
+
+    @Test
+    public void testRequestsOverBudgetAreLogged(CapturedOutput output) throws Exception {
+        StatementBudgetFilter filter = new StatementBudgetFilter(new MockEnvironment()
+                .withProperty("outsera.diagnostics.statement-budget.sample-rate", "1")
+                .withProperty("outsera.diagnostics.statement-budget.endpoints.[GET /v1/movies/{id}]", "2"));
+        DataSource dataSource = new InstrumentedDataSource(dataSource());
+
+        filter.doFilter(request("/v1/movies/1"), new MockHttpServletResponse(), queries(dataSource, 2));
+        assertThat(output).doesNotContain("over its budget");
+
+        filter.doFilter(request("/v1/movies/2"), new MockHttpServletResponse(), queries(dataSource, 3));
+        assertThat(output)
+                .contains("GET /v1/movies/{id} (/v1/movies/2) issued 3 statements, over its budget of 2")
+                .contains("select * from producer where id = ?=3");
+    }
+
+    @Test
+    public void testCountsNest() throws Exception {
+        DataSource dataSource = new InstrumentedDataSource(dataSource());
+        try (StatementCount outer = StatementCount.begin()) {
+            try (StatementCount inner = StatementCount.begin()) {
+                queries(dataSource, 2).doFilter(null, null);
+                assertThat(inner.total()).isEqualTo(2);
+            }
+            queries(dataSource, 1).doFilter(null, null);
+            assertThat(outer.total()).isEqualTo(3);
+            assertThat(outer.repeated()).containsExactly(Map.entry("select * from producer where id = ?", 3));
+        }
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/v1/movies/{id}");
+        return request;
+    }
+
+    private static FilterChain queries(DataSource dataSource, int count) {
+        return (request, response) -> {
+            try (Connection connection = dataSource.getConnection()) {
+                for (int i = 0; i < count; i++) {
+                    connection.prepareStatement("select * from producer where id = ?").executeQuery();
+                }
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    private static DataSource dataSource() throws Exception {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        return target;
+    }
+}
@@ -0,0 +1,215 @@
+package com.pedro.orso.outsera.load;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.orso.outsera.web.rest.dto.MovieDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerDto;
+import com.pedro.orso.outsera.web.rest.dto.StudioDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives a mix of reads and writes over the movie, producer, studio and award endpoints at a fixed arrival rate,
+ * against a synthetic catalog imported through {@code POST /v1/movies/import}, and writes the throughput and
+ * latency percentiles of each endpoint to {@code target/load-reports/endpoint-mix.json}.
+ * <p>
+ * Run with {@code mvn test -Dtest=EndpointLoadTest -Dbenchmark=true}, tuned with {@code -Dload.rate=}
+ * (requests per second), {@code -Dload.duration=} and {@code -Dload.warmup=} (seconds), {@code -Dload.movies=}
+ * (catalog size) and {@code -Dload.mix=} (e.g. {@code awards=50,movie=50}, names from {@link #operations()}).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"outsera.awards.max-staleness=5s", "logging.level.com.pedro.orso=WARN"})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class EndpointLoadTest {
+
+    private static final String DEFAULT_MIX = "awards=20,awards-window=5,movies=20,movie=20,producers=5,"
+            + "producer=5,studios=5,studio=5,create=8,update=5,delete=2";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<Long> movieIds;
+    private List<ProducerDto> producers;
+    private List<StudioDto> studios;
+
+    // Movies created by the run, the ones updated and deleted
+    private final ConcurrentLinkedDeque<Long> created = new ConcurrentLinkedDeque<>();
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:endpoint_load_test_db;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    public void testEndpointMix() throws Exception {
+        importCatalog(Integer.getInteger("load.movies", 20_000));
+
+        LoadMix mix = LoadMix.parse(System.getProperty("load.mix", DEFAULT_MIX), operations());
+        LoadReport report = new OpenLoopLoadGenerator(7).run("endpoint-mix", mix,
+                Double.parseDouble(System.getProperty("load.rate", "200")),
+                Duration.ofSeconds(Long.getLong("load.warmup", 10)),
+                Duration.ofSeconds(Long.getLong("load.duration", 30)));
+
+        Path file = report.write();
+        System.out.println(report);
+        System.out.println("Report written to " + file.toAbsolutePath());
+        assertThat(report.total().requests()).isPositive();
+    }
+
+    private Map<String, Operation> operations() {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        operations.put("awards", new Operation("GET /v1/awards/intervals",
+                random -> get("/v1/awards/intervals")));
+        operations.put("awards-window", new Operation("GET /v1/awards/intervals?top", random -> {
+            int from = 1950 + random.nextInt(50);
+            return get("/v1/awards/intervals?top=5&fromYear=" + from + "&toYear=" + (from + 20));
+        }));
+        operations.put("movies", new Operation("GET /v1/movies",
+                random -> get("/v1/movies?page=" + random.nextInt(50) + "&size=20")));
+        operations.put("movie", new Operation("GET /v1/movies/{id}",
+                random -> get("/v1/movies/" + pick(movieIds, random))));
+        operations.put("producers", new Operation("GET /v1/producers",
+                random -> get("/v1/producers?page=" + random.nextInt(50) + "&size=20")));
+        operations.put("producer", new Operation("GET /v1/producers/{id}",
+                random -> get("/v1/producers/" + pick(producers, random).getId())));
+        operations.put("studios", new Operation("GET /v1/studios",
+                random -> get("/v1/studios?page=" + random.nextInt(10) + "&size=20")));
+        operations.put("studio", new Operation("GET /v1/studios/{id}",
+                random -> get("/v1/studios/" + pick(studios, random).getId())));
+        operations.put("create", new Operation("POST /v1/movies",
+                random -> send("POST", "/v1/movies", movie(null, random)),
+                response -> {
+                    if (response.statusCode() == 201) {
+                        created.addLast(read(response.body()).getId());
+                    }
+                }));
+        operations.put("update", new Operation("PUT /v1/movies/{id}", random -> {
+            Long id = created.pollFirst();
+            if (id == null) {
+                return null;
+            }
+            created.addLast(id);
+            return send("PUT", "/v1/movies/" + id, movie(id, random));
+        }));
+        operations.put("delete", new Operation("DELETE /v1/movies/{id}", random -> {
+            Long id = created.pollFirst();
+            return id == null ? null : HttpRequest.newBuilder(uri("/v1/movies/" + id)).DELETE().build();
+        }));
+        return operations;
+    }
+
+    /**
+     * {@code movies} movies over 70 years, one in five a winner, with 1 to 3 of {@code movies / 4} producers and 1
+     * to 2 of 200 studios.
+     */
+    private void importCatalog(int movies) throws IOException, InterruptedException {
+        Random random = new Random(11);
+        StringBuilder csv = new StringBuilder("year;title;studios;producers;winner\n");
+        for (int i = 0; i < movies; i++) {
+            csv.append(1950 + random.nextInt(70)).append(";Synthetic movie ").append(i).append(';')
+                    .append("Studio ").append(random.nextInt(200));
+            if (random.nextBoolean()) {
+                csv.append(", Studio ").append(random.nextInt(200));
+            }
+            csv.append(";Producer ").append(random.nextInt(movies / 4 + 1));
+            for (int p = random.nextInt(3); p > 0; p--) {
+                csv.append(" and Producer ").append(random.nextInt(movies / 4 + 1));
+            }
+            csv.append(';').append(random.nextInt(5) == 0 ? "yes" : "").append('\n');
+        }
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(uri("/v1/movies/import"))
+                        .header("Content-Type", "text/csv")
+                        .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as(response.body()).isEqualTo(200);
+
+        movieIds = jdbcTemplate.queryForList("SELECT id FROM movie", Long.class);
+        producers = jdbcTemplate.query("SELECT id, name FROM producer", (rs, row) -> {
+            ProducerDto producer = new ProducerDto();
+            producer.setId(rs.getLong(1));
+            producer.setName(rs.getString(2));
+            return producer;
+        });
+        studios = jdbcTemplate.query("SELECT id, name FROM studio", (rs, row) -> {
+            StudioDto studio = new StudioDto();
+            studio.setId(rs.getLong(1));
+            studio.setName(rs.getString(2));
+            return studio;
+        });
+    }
+
+    private MovieDTO movie(Long id, SplittableRandom random) {
+        MovieDTO movie = new MovieDTO();
+        movie.setId(id);
+        movie.setTitle("Load test movie " + random.nextInt(1_000_000));
+        movie.setReleaseYear(1950 + random.nextInt(80));
+        movie.setWinner(random.nextInt(3) == 0);
+        movie.setStudios(List.of(pick(studios, random)));
+        movie.setProducers(List.of(pick(producers, random), pick(producers, random)));
+        return movie;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).GET().build();
+    }
+
+    private HttpRequest send(String method, String path, MovieDTO body) {
+        try {
+            return HttpRequest.newBuilder(uri(path))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MovieDTO read(String body) {
+        try {
+            return objectMapper.readValue(body, MovieDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static <T> T pick(List<T> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,53 @@
+package com.pedro.orso.outsera.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted choice between {@link Operation}s.
+ */
+public class LoadMix {
+
+    private final List<Operation> operations = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private int totalWeight;
+
+    /**
+     * Parses {@code name=weight,name=weight}, e.g. {@code awards=40,movie=50,create=10}, the names being keys of
+     * {@code operations}.
+     */
+    public static LoadMix parse(String mix, Map<String, Operation> operations) {
+        LoadMix loadMix = new LoadMix();
+        for (String entry : mix.split(",")) {
+            String[] nameAndWeight = entry.trim().split("=");
+            Operation operation = operations.get(nameAndWeight[0].trim());
+            if (nameAndWeight.length != 2 || operation == null) {
+                throw new IllegalArgumentException("Invalid mix entry '" + entry + "', expected name=weight with "
+                        + "a name among " + operations.keySet());
+            }
+            loadMix.add(operation, Integer.parseInt(nameAndWeight[1].trim()));
+        }
+        return loadMix;
+    }
+
+    public LoadMix add(Operation operation, int weight) {
+        if (weight > 0) {
+            totalWeight += weight;
+            operations.add(operation);
+            cumulativeWeights.add(totalWeight);
+        }
+        return this;
+    }
+
+    public Operation next(SplittableRandom random) {
+        int value = random.nextInt(totalWeight);
+        for (int i = 0; i < operations.size(); i++) {
+            if (value < cumulativeWeights.get(i)) {
+                return operations.get(i);
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+}
@@ -0,0 +1,59 @@
+package com.pedro.orso.outsera.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Outcome of an {@link OpenLoopLoadGenerator} run, per endpoint and in total. Latencies in milliseconds.
+ */
+public record LoadReport(String scenario, double targetRate, double seconds, List<EndpointReport> endpoints,
+                         EndpointReport total) {
+
+    /**
+     * Writes the report as JSON to {@code target/load-reports/<scenario>.json}.
+     */
+    public Path write() throws IOException {
+        Path file = Path.of("target", "load-reports", scenario + ".json");
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+        return file;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder table = new StringBuilder(String.format("%s, %.0f req/s for %.0f s%n", scenario, targetRate,
+                seconds));
+        table.append(String.format("%-32s %8s %6s %6s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "skip", "req/s", "p50", "p99", "p999", "max"));
+        for (EndpointReport endpoint : endpoints) {
+            table.append(endpoint).append(System.lineSeparator());
+        }
+        return table.append(total).toString();
+    }
+
+    public record EndpointReport(String endpoint, long requests, long errors, long skipped, double throughput,
+                                 double p50, double p90, double p99, double p999, double max) {
+
+        static EndpointReport of(String endpoint, Histogram latencies, long errors, long skipped, double seconds) {
+            return new EndpointReport(endpoint, latencies.getTotalCount(), errors, skipped,
+                    latencies.getTotalCount() / seconds,
+                    millis(latencies, 50), millis(latencies, 90), millis(latencies, 99), millis(latencies, 99.9),
+                    latencies.getMaxValue() / 1000.0);
+        }
+
+        private static double millis(Histogram latencies, double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-32s %8d %6d %6d %9.1f %9.2f %9.2f %9.2f %9.2f",
+                    endpoint, requests, errors, skipped, throughput, p50, p99, p999, max);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.pedro.orso.outsera.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a fixed arrival rate whatever the response times, each one from its own virtual thread.
+ * <p>
+ * Latency is measured from when a request was due rather than from when it went out, so a stalled server or a
+ * late dispatcher shows up in the percentiles instead of silently lowering the request rate (coordinated
+ * omission). Requests due during the warm up are sent but not recorded.
+ */
+public class OpenLoopLoadGenerator {
+
+    // Latencies are recorded in microseconds, anything over is clamped
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(5);
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    private final long seed;
+
+    public OpenLoopLoadGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public LoadReport run(String scenario, LoadMix mix, double requestsPerSecond, Duration warmUp,
+                          Duration duration) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Map<String, EndpointRecorder> recorders = new ConcurrentHashMap<>();
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmUp.toNanos();
+        long end = measureFrom + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long due = start; due < end; due += interval) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = mix.next(random);
+                HttpRequest request = operation.request().apply(random);
+                EndpointRecorder recorder = due >= measureFrom
+                        ? recorders.computeIfAbsent(operation.endpoint(), endpoint -> new EndpointRecorder())
+                        : null;
+                if (request == null) {
+                    if (recorder != null) {
+                        recorder.skipped.incrementAndGet();
+                    }
+                    continue;
+                }
+                long dueAt = due;
+                clients.execute(() -> {
+                    boolean ok;
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        ok = response.statusCode() < 400;
+                        operation.onResponse().accept(response);
+                    } catch (IOException | RuntimeException e) {
+                        ok = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (recorder != null) {
+                        recorder.record(System.nanoTime() - dueAt, ok);
+                    }
+                });
+            }
+        }
+
+        double seconds = duration.toNanos() / 1e9;
+        Histogram total = new Histogram(HIGHEST_LATENCY, 3);
+        Map<String, LoadReport.EndpointReport> endpoints = new TreeMap<>();
+        long errors = 0;
+        long skipped = 0;
+        for (Map.Entry<String, EndpointRecorder> entry : recorders.entrySet()) {
+            EndpointRecorder recorder = entry.getValue();
+            endpoints.put(entry.getKey(), LoadReport.EndpointReport.of(entry.getKey(), recorder.latencies,
+                    recorder.errors.get(), recorder.skipped.get(), seconds));
+            total.add(recorder.latencies);
+            errors += recorder.errors.get();
+            skipped += recorder.skipped.get();
+        }
+        return new LoadReport(scenario, requestsPerSecond, seconds, endpoints.values().stream().toList(),
+                LoadReport.EndpointReport.of("total", total, errors, skipped, seconds));
+    }
+
+    private static final class EndpointRecorder {
+
+        private final Histogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY, 3);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+
+        void record(long nanos, boolean ok) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_LATENCY));
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+}
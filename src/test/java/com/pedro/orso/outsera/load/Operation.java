@@ -0,0 +1,24 @@
+package com.pedro.orso.outsera.load;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * One kind of request of a {@link LoadMix}.
+ *
+ * @param endpoint   what the request is reported under, e.g. {@code GET /v1/movies/{id}}.
+ * @param request    builds the next request, or returns {@code null} when there is nothing to send yet, e.g. a
+ *                   delete before anything was created. Called from the dispatching thread only.
+ * @param onResponse sees every response, called concurrently from the client threads.
+ */
+public record Operation(String endpoint, Function<SplittableRandom, HttpRequest> request,
+                        Consumer<HttpResponse<String>> onResponse) {
+
+    public Operation(String endpoint, Function<SplittableRandom, HttpRequest> request) {
+        this(endpoint, request, response -> {
+        });
+    }
+}
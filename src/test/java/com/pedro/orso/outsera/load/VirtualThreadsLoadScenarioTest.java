@@ -0,0 +1,97 @@
+package com.pedro.orso.outsera.load;
+
+import com.pedro.orso.outsera.ChallengeApplication;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Same read under the same load, once on the default platform thread Tomcat pool and once with the
+ * {@code virtual-threads} profile. Both get the same connection pool, and every connection checkout waits
+ * {@link #DATABASE_LATENCY} as a remote database would, so request handling rather than the database in memory is
+ * what is compared.
+ * <p>
+ * Run with {@code mvn test -Dtest=VirtualThreadsLoadScenarioTest -Dbenchmark=true}, {@code -Dclients=n} for another
+ * number of concurrent clients.
+ */
+public class VirtualThreadsLoadScenarioTest {
+
+    private static final Duration DATABASE_LATENCY = Duration.ofMillis(20);
+    private static final int POOL_SIZE = 20;
+    private static final int CLIENTS = Integer.getInteger("clients", 400);
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void compareThroughputAndTailLatency() throws Exception {
+        LoadDriver.Result platform = measure("platform", false);
+        LoadDriver.Result virtual;
+        AtomicInteger pinned = new AtomicInteger();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1)).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                pinned.incrementAndGet();
+                System.out.println(event);
+            });
+            recording.startAsync();
+            virtual = measure("virtual", true);
+        }
+
+        System.out.printf("platform threads: %s%n", platform);
+        System.out.printf("virtual threads:  %s%n", virtual);
+        System.out.printf("virtual thread pinned events: %d%n", pinned.get());
+        assertThat(virtual.errors()).isZero();
+        assertThat(pinned.get()).isZero();
+    }
+
+    private static LoadDriver.Result measure(String name, boolean virtualThreads) throws InterruptedException {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ChallengeApplication.class)
+                .profiles(virtualThreads ? new String[]{"test", "virtual-threads"} : new String[]{"test"})
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load_" + name + "_db;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "logging.level.root=WARN")
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new SlowDatabase()));
+        try (ConfigurableApplicationContext context = builder.run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            // Not cached, every request borrows a connection
+            URI uri = URI.create("http://localhost:" + port + "/v1/studios?page=0&size=20");
+            return new LoadDriver().run(uri, CLIENTS, Duration.ofSeconds(5), Duration.ofSeconds(15));
+        }
+    }
+
+    private static class SlowDatabase implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection connection = super.getConnection();
+                    try {
+                        Thread.sleep(DATABASE_LATENCY);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return connection;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.domain.Producer;
+import com.pedro.orso.outsera.repository.ProducerRepository;
+import com.pedro.orso.outsera.service.award.AwardIntervalEngine;
+import com.pedro.orso.outsera.web.rest.dto.MovieDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerDto;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AwardIntervalEnginesIntegrationTest {
+
+    @Autowired
+    private List<AwardIntervalEngine> engines;
+
+    @Autowired
+    private AwardIntervalIndex awardIntervalIndex;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private ProducerRepository producerRepository;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () ->
+                "jdbc:h2:mem:award_engines_test_db;DB_CLOSE_DELAY=-1");
+        // The index engine serves the awards, the materialized one is only checked here
+        registry.add("outsera.awards.materialize-intervals", () -> "true");
+    }
+
+    @Test
+    public void testEnginesAgreeWithTheIndex() {
+        assertEnginesAgree();
+
+        // Ties on both ends, including a producer winning twice in the same year
+        Producer tied = new Producer();
+        tied.setName("Tied Producer");
+        tied = producerRepository.save(tied);
+        saveWinner("Tied One", 1900, tied);
+        saveWinner("Tied Two", 1900, tied);
+        saveWinner("Tied Three", 1901, tied);
+        saveWinner("Tied Four", 2100, tied);
+
+        ProducerIntervalResponseDTO expected = assertEnginesAgree();
+        assertThat(expected.getMin()).extracting("interval").containsOnly(0);
+        assertThat(expected.getMax()).extracting("interval").containsOnly(199);
+    }
+
+    private ProducerIntervalResponseDTO assertEnginesAgree() {
+        ProducerIntervalResponseDTO expected = awardIntervalIndex.getMinAndMaxIntervals();
+        assertThat(engines).extracting(AwardIntervalEngine::name).contains("sql", "streaming", "parallel", "materialized");
+        for (AwardIntervalEngine engine : engines) {
+            long[] rowsScanned = new long[1];
+            assertThat(engine.getMinAndMaxIntervals(rows -> rowsScanned[0] += rows)).as(engine.name())
+                    .isEqualTo(expected);
+            assertThat(rowsScanned[0]).as(engine.name()).isPositive();
+        }
+        return expected;
+    }
+
+    @Test
+    public void testMaterializedIntervalsUnderConcurrentWrites() throws Exception {
+        Producer shared = new Producer();
+        shared.setName("Concurrent Producer");
+        shared = producerRepository.save(shared);
+        Producer sharedProducer = shared;
+
+        List<Callable<MovieDTO>> creates = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            int year = 1800 + i * 3;
+            creates.add(() -> saveWinner("Concurrent " + year, year, sharedProducer));
+        }
+        List<MovieDTO> created = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<MovieDTO> future : executor.invokeAll(creates)) {
+                created.add(future.get());
+            }
+            assertEnginesAgree();
+
+            List<Callable<Boolean>> deletes = new ArrayList<>();
+            for (int i = 0; i < created.size(); i += 2) {
+                Long id = created.get(i).getId();
+                deletes.add(() -> movieService.deleteMovieById(id));
+            }
+            for (Future<Boolean> future : executor.invokeAll(deletes)) {
+                assertThat(future.get()).isTrue();
+            }
+            assertEnginesAgree();
+        } finally {
+            executor.shutdown();
+        }
+
+        for (MovieDTO movie : created) {
+            movieService.deleteMovieById(movie.getId());
+        }
+        assertEnginesAgree();
+    }
+
+    @Test
+    public void testMaterializedIntervalsFollowAMovieThatStopsWinning() {
+        Producer producer = new Producer();
+        producer.setName("Former Winner Producer");
+        producer = producerRepository.save(producer);
+        // Two wins in the same year, an interval of 0 is always among the shortest
+        saveWinner("Former Winner One", 1700, producer);
+        MovieDTO second = saveWinner("Former Winner Two", 1700, producer);
+        assertThat(assertEnginesAgree().getMin()).extracting("producer").contains("Former Winner Producer");
+
+        second.setWinner(false);
+        movieService.updateMovie(second.getId(), second);
+        assertThat(assertEnginesAgree().getMin()).extracting("producer").doesNotContain("Former Winner Producer");
+    }
+
+    private MovieDTO saveWinner(String title, int year, Producer producer) {
+        ProducerDto credit = new ProducerDto();
+        credit.setId(producer.getId());
+
+        MovieDTO movie = new MovieDTO();
+        movie.setTitle(title);
+        movie.setReleaseYear(year);
+        movie.setWinner(true);
+        movie.setProducers(List.of(credit));
+        return movieService.createMovie(movie);
+    }
+}
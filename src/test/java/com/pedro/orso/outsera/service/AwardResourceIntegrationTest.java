@@ -5,11 +5,14 @@ import com.pedro.orso.outsera.domain.Movie;
 import com.pedro.orso.outsera.domain.Producer;
 import com.pedro.orso.outsera.repository.MovieRepository;
 import com.pedro.orso.outsera.repository.ProducerRepository;
+import com.pedro.orso.outsera.web.rest.dto.MovieDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerDto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -21,6 +24,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,6 +51,8 @@ public class AwardResourceIntegrationTest {
                 "jdbc:h2:mem:award_resource_test_db;DB_CLOSE_DELAY=-1");
     }
 
+    private Producer producer2;
+
     @BeforeEach
     @Transactional
     public void setup() {
@@ -59,7 +65,7 @@ public class AwardResourceIntegrationTest {
         producer1.setName("Producer 1");
         producerRepository.save(producer1);
 
-        Producer producer2 = new Producer();
+        producer2 = new Producer();
         producer2.setName("Producer 2");
         producerRepository.save(producer2);
 
@@ -108,4 +114,57 @@ public class AwardResourceIntegrationTest {
                 .andExpect(jsonPath("$.max[0].previousWin", is(2002)))
                 .andExpect(jsonPath("$.max[0].followingWin", is(2010)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testIntervalsFollowMoviesCreatedThroughTheApi() throws Exception {
+        ProducerDto producer = new ProducerDto();
+        producer.setId(producer2.getId());
+
+        MovieDTO movie = new MovieDTO();
+        movie.setTitle("Movie 5");
+        movie.setReleaseYear(2011);
+        movie.setWinner(true);
+        movie.setProducers(List.of(producer));
+
+        mockMvc.perform(post("/v1/movies")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(movie)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/v1/awards/intervals"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.min", hasSize(1)))
+                .andExpect(jsonPath("$.min[0].producer", is("Producer 2")))
+                .andExpect(jsonPath("$.min[0].interval", is(1)))
+                .andExpect(jsonPath("$.min[0].previousWin", is(2010)))
+                .andExpect(jsonPath("$.min[0].followingWin", is(2011)))
+                .andExpect(jsonPath("$.max[0].producer", is("Producer 2")))
+                .andExpect(jsonPath("$.max[0].interval", is(8)));
+    }
+
+    @Test
+    public void testTopAndYearWindow() throws Exception {
+        mockMvc.perform(get("/v1/awards/intervals").param("top", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.min", hasSize(2)))
+                .andExpect(jsonPath("$.min[0].interval", is(5)))
+                .andExpect(jsonPath("$.min[1].interval", is(8)))
+                .andExpect(jsonPath("$.max", hasSize(2)))
+                .andExpect(jsonPath("$.max[0].interval", is(8)))
+                .andExpect(jsonPath("$.max[1].interval", is(5)));
+
+        mockMvc.perform(get("/v1/awards/intervals").param("fromYear", "2001").param("toYear", "2010"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.min", hasSize(1)))
+                .andExpect(jsonPath("$.min[0].producer", is("Producer 2")))
+                .andExpect(jsonPath("$.max[0].producer", is("Producer 2")));
+
+        mockMvc.perform(get("/v1/awards/intervals").param("toYear", "2004"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.min", hasSize(0)))
+                .andExpect(jsonPath("$.max", hasSize(0)));
+
+        mockMvc.perform(get("/v1/awards/intervals").param("top", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
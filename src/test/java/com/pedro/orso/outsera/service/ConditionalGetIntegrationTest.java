@@ -0,0 +1,125 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.domain.Movie;
+import com.pedro.orso.outsera.domain.Producer;
+import com.pedro.orso.outsera.repository.MovieRepository;
+import com.pedro.orso.outsera.repository.ProducerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConditionalGetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private AwardService awardService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ProducerRepository producerRepository;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () ->
+                "jdbc:h2:mem:conditional_get_test_db;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    public void testUnchangedIntervalsAreNotRecomputed() throws Exception {
+        String etag = mockMvc.perform(get("/v1/awards/intervals"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        clearInvocations(awardService);
+
+        mockMvc.perform(get("/v1/awards/intervals").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        verify(awardService, never()).getProducersWithMinAndMaxInterval();
+    }
+
+    @Test
+    public void testWritesChangeTheEtag() throws Exception {
+        String etag = mockMvc.perform(get("/v1/studios").param("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/v1/studios").param("size", "5").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post("/v1/studios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"AAA New Studio\"}"))
+                .andExpect(status().isCreated());
+
+        String newEtag = mockMvc.perform(get("/v1/studios").param("size", "5").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    public void testRepositoryWritesChangeTheEtag() throws Exception {
+        String etag = mockMvc.perform(get("/v1/awards/intervals"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Straight through the repositories, no service bumps the version for these
+        Producer producer = new Producer();
+        producer.setName("Repository Producer");
+        producer = producerRepository.save(producer);
+        String producerEtag = mockMvc.perform(get("/v1/awards/intervals").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, producerEtag);
+
+        saveWinner("Repository One", 1600, producer);
+        saveWinner("Repository Two", 1600, producer);
+
+        String newEtag = mockMvc.perform(get("/v1/awards/intervals").header(HttpHeaders.IF_NONE_MATCH, producerEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.min[*].producer", hasItem("Repository Producer")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(producerEtag, newEtag);
+    }
+
+    private void saveWinner(String title, int year, Producer producer) {
+        Movie movie = new Movie();
+        movie.setTitle(title);
+        movie.setReleaseYear(year);
+        movie.setWinner(true);
+        movie.setProducers(List.of(producer));
+        movieRepository.save(movie);
+    }
+}
@@ -0,0 +1,115 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.repository.MovieRepository;
+import com.pedro.orso.outsera.repository.ProducerRepository;
+import com.pedro.orso.outsera.repository.StudioRepository;
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class DatasetSnapshotIntegrationTest {
+
+    private static final Path SNAPSHOT = Path.of("target", "test-snapshots", "movielist.snapshot");
+
+    @Autowired
+    private DataLoader dataLoader;
+
+    @Autowired
+    private AwardService awardService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ProducerRepository producerRepository;
+
+    @Autowired
+    private StudioRepository studioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) throws IOException {
+        Files.deleteIfExists(SNAPSHOT);
+        registry.add("spring.datasource.url", () ->
+                "jdbc:h2:mem:dataset_snapshot_test_db;DB_CLOSE_DELAY=-1");
+        registry.add("outsera.loader.snapshot.path", SNAPSHOT::toString);
+    }
+
+    @Test
+    public void testRestoreFromSnapshotMatchesCsvLoad() throws Exception {
+        // The startup load parsed the csv and left a snapshot behind
+        assertTrue(Files.isRegularFile(SNAPSHOT), "Snapshot should have been written");
+
+        long movieCount = movieRepository.count();
+        long producerCount = producerRepository.count();
+        long studioCount = studioRepository.count();
+        ProducerIntervalResponseDTO intervals = awardService.getProducersWithMinAndMaxInterval();
+
+        clearTables();
+        dataLoader.run();
+
+        assertEquals(movieCount, movieRepository.count());
+        assertEquals(producerCount, producerRepository.count());
+        assertEquals(studioCount, studioRepository.count());
+        assertEquals(intervals, awardService.getProducersWithMinAndMaxInterval());
+        assertEquals(movieCount, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT movie_id) FROM movie_studio", Long.class));
+
+        clearTables();
+        Files.delete(SNAPSHOT);
+        dataLoader.run();
+
+        assertEquals(movieCount, movieRepository.count());
+        assertTrue(Files.isRegularFile(SNAPSHOT), "Snapshot should have been written again");
+    }
+
+    /**
+     * Run with {@code mvn test -Dtest=DatasetSnapshotIntegrationTest -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmarkRestoreAgainstCsvLoad() throws Exception {
+        if (!Files.isRegularFile(SNAPSHOT)) {
+            clearTables();
+            dataLoader.run();
+        }
+
+        clearTables();
+        long restoreStart = System.nanoTime();
+        dataLoader.run();
+        long restoreMillis = (System.nanoTime() - restoreStart) / 1_000_000;
+
+        clearTables();
+        Files.delete(SNAPSHOT);
+        long csvStart = System.nanoTime();
+        dataLoader.run();
+        long csvMillis = (System.nanoTime() - csvStart) / 1_000_000;
+
+        System.out.println("Load from csv: " + csvMillis + " ms, restore from snapshot: " + restoreMillis + " ms");
+    }
+
+    private void clearTables() {
+        jdbcTemplate.update("DELETE FROM producer_win_interval");
+        jdbcTemplate.update("DELETE FROM movie_producer");
+        jdbcTemplate.update("DELETE FROM movie_studio");
+        jdbcTemplate.update("DELETE FROM movie");
+        jdbcTemplate.update("DELETE FROM producer");
+        jdbcTemplate.update("DELETE FROM studio");
+    }
+}
@@ -0,0 +1,131 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.configuration.CacheConfiguration;
+import com.pedro.orso.outsera.web.rest.dto.MovieDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class EntityCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private ProducerService producerService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () ->
+                "jdbc:h2:mem:entity_cache_test_db;DB_CLOSE_DELAY=-1");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testRepeatedReadIsServedFromCache() throws Exception {
+        double hits = cacheGets("hit");
+
+        mockMvc.perform(get("/v1/movies/{id}", 2)).andExpect(status().isOk());
+        statistics.clear();
+        mockMvc.perform(get("/v1/movies/{id}", 2)).andExpect(status().isOk());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(hits + 1, cacheGets("hit"));
+    }
+
+    @Test
+    public void testConcurrentMissesLoadOnce() throws Exception {
+        int callers = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<MovieDTO>> results = new ArrayList<>();
+        statistics.clear();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return movieService.getMovieById(3L);
+                }));
+            }
+            start.countDown();
+            for (Future<MovieDTO> result : results) {
+                assertSame(results.get(0).get(), result.get());
+            }
+        }
+
+        // The movie, then its studios and producers
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testRenamedProducerIsNotServedStale() throws Exception {
+        MovieDTO movie = movieService.getMovieById(4L);
+        ProducerDto producer = movie.getProducers().get(0);
+
+        mockMvc.perform(put("/v1/producers/{id}", producer.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Renamed Producer\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/v1/movies/{id}", 4))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.producers[*].name", hasItem("Renamed Producer")));
+        mockMvc.perform(get("/v1/producers/{id}", producer.getId()))
+                .andExpect(jsonPath("$.name").value("Renamed Producer"));
+        assertTrue(producerService.getProducerById(producer.getId()).getName().startsWith("Renamed"));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("name", CacheConfiguration.MOVIES)
+                .tag("result", result)
+                .functionCounter().count();
+    }
+}
@@ -0,0 +1,98 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.diagnostics.ContinuousRecording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "outsera.diagnostics.recording.enabled=true",
+        "outsera.diagnostics.slow-statement-threshold=0ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class FlightRecordingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ContinuousRecording continuousRecording;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:flight_recording_test_db;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    public void testDiagnosticEventsAreRecorded(@TempDir Path directory) throws Exception {
+        long version = datasetVersion.current();
+        mockMvc.perform(get("/v1/awards/intervals").param("top", "2")).andExpect(status().isOk());
+        mockMvc.perform(post("/v1/movies/import").contentType("text/csv").content("""
+                        year;title;studios;producers;winner
+                        2030;Recorded Movie;Recorded Studio;Recorded Producer and Allan Carr;yes
+                        """))
+                .andExpect(status().isOk());
+
+        Path file = directory.resolve("outsera.jfr");
+        continuousRecording.recording().dump(file);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        assertThat(events(events, "com.pedro.orso.outsera.LoaderChunk"))
+                .anySatisfy(event -> {
+                    assertThat(event.getString("operation")).isEqualTo("load");
+                    assertThat(event.getInt("rows")).isPositive();
+                    assertThat(event.getInt("producersCreated")).isPositive();
+                    assertThat(event.getInt("studiosCreated")).isPositive();
+                    assertThat(event.getBoolean("committed")).isTrue();
+                })
+                .anySatisfy(event -> {
+                    assertThat(event.getString("operation")).isEqualTo("import");
+                    assertThat(event.getInt("rows")).isEqualTo(1);
+                    assertThat(event.getInt("producersCreated")).isEqualTo(1);
+                    assertThat(event.getInt("studiosCreated")).isEqualTo(1);
+                });
+        assertThat(events(events, "com.pedro.orso.outsera.AwardComputation"))
+                .anySatisfy(event -> {
+                    assertThat(event.getString("engine")).isEqualTo("index");
+                    assertThat(event.getString("query")).isEqualTo("top");
+                    assertThat(event.getLong("datasetVersion")).isEqualTo(version);
+                    assertThat(event.getLong("rowsScanned")).isPositive();
+                    assertThat(event.getInt("minInterval")).isPositive();
+                    assertThat(event.getInt("maxInterval")).isGreaterThan(event.getInt("minInterval"));
+                });
+        assertThat(events(events, "com.pedro.orso.outsera.HttpRequest"))
+                .anySatisfy(event -> {
+                    assertThat(event.getString("method")).isEqualTo("GET");
+                    assertThat(event.getString("endpoint")).isEqualTo("/v1/awards/intervals");
+                    assertThat(event.getInt("status")).isEqualTo(200);
+                    assertThat(event.getLong("datasetVersion")).isEqualTo(version);
+                })
+                .anySatisfy(event -> assertThat(event.getString("endpoint")).isEqualTo("/v1/movies/import"));
+        assertThat(events(events, "com.pedro.orso.outsera.SlowStatement"))
+                .anySatisfy(event -> assertThat(event.getString("sql")).containsIgnoringCase("insert into movie"));
+    }
+
+    private static List<RecordedEvent> events(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.pedro.orso.outsera.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IntervalRangeTreeTest {
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int size = random.nextInt(60);
+            int[] previous = new int[size];
+            int[] following = new int[size];
+            for (int i = 0; i < size; i++) {
+                previous[i] = 1980 + random.nextInt(40);
+                following[i] = previous[i] + 1 + random.nextInt(15);
+            }
+            IntervalRangeTree tree = new IntervalRangeTree(previous, following);
+
+            for (int query = 0; query < 20; query++) {
+                int from = 1975 + random.nextInt(50);
+                int to = from + random.nextInt(40);
+                int k = 1 + random.nextInt(6);
+
+                assertArrayEquals(expected(previous, following, from, to, k, true),
+                        intervals(previous, following, tree.shortest(from, to, k)));
+                assertArrayEquals(expected(previous, following, from, to, k, false),
+                        intervals(previous, following, tree.longest(from, to, k)));
+            }
+        }
+    }
+
+    @Test
+    public void testOpenWindowAndTies() {
+        int[] previous = {2000, 2002, 1990, 2010};
+        int[] following = {2005, 2010, 1991, 2011};
+        IntervalRangeTree tree = new IntervalRangeTree(previous, following);
+
+        int[] shortest = tree.shortest(Integer.MIN_VALUE, Integer.MAX_VALUE, 1);
+        Arrays.sort(shortest);
+        assertArrayEquals(new int[]{2, 3}, shortest);
+        assertArrayEquals(new int[]{1}, tree.longest(Integer.MIN_VALUE, Integer.MAX_VALUE, 1));
+        assertArrayEquals(new int[]{0}, tree.longest(2000, 2009, 3));
+        assertEquals(0, tree.shortest(2012, 2020, 3).length);
+        assertEquals(0, new IntervalRangeTree(new int[0], new int[0]).longest(0, 10, 1).length);
+    }
+
+    private static int[] expected(int[] previous, int[] following, int from, int to, int k, boolean shortest) {
+        List<Integer> inside = new ArrayList<>();
+        for (int i = 0; i < previous.length; i++) {
+            if (previous[i] >= from && following[i] <= to) {
+                inside.add(following[i] - previous[i]);
+            }
+        }
+        inside.sort(shortest ? Comparator.naturalOrder() : Comparator.reverseOrder());
+        List<Integer> result = new ArrayList<>();
+        for (int interval : inside) {
+            if (result.size() >= k && interval != result.get(result.size() - 1)) {
+                break;
+            }
+            result.add(interval);
+        }
+        return result.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] intervals(int[] previous, int[] following, int[] positions) {
+        return Arrays.stream(positions).map(i -> following[i] - previous[i]).toArray();
+    }
+}
@@ -0,0 +1,85 @@
+package com.pedro.orso.outsera.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.orso.outsera.repository.ProducerRepository;
+import com.pedro.orso.outsera.web.rest.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class KeysetPaginationIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProducerRepository producerRepository;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () ->
+                "jdbc:h2:mem:keyset_pagination_test_db;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    public void testCursorWalksEveryProducerOnce() throws Exception {
+        Set<Long> seen = new HashSet<>();
+        String previousName = "";
+        String after = "";
+        int pages = 0;
+
+        while (after != null) {
+            MvcResult result = mockMvc.perform(get("/v1/producers").param("after", after).param("size", "17"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+            for (JsonNode producer : page) {
+                assertTrue(seen.add(producer.get("id").asLong()), "Producer listed twice: " + producer);
+                assertTrue(previousName.compareTo(producer.get("name").asText()) <= 0, "Out of order: " + producer);
+                previousName = producer.get("name").asText();
+            }
+            after = result.getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+            pages++;
+        }
+
+        assertEquals(producerRepository.count(), seen.size());
+        assertEquals((seen.size() + 16) / 17, pages);
+    }
+
+    @Test
+    public void testOffsetListingIsStillAvailable() throws Exception {
+        mockMvc.perform(get("/v1/movies").param("page", "1").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5))
+                .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void testInvalidCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/v1/studios").param("after", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,60 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.repository.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+public class MetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:metrics_test_db;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    public void testHotPathsAreExposedToPrometheus() throws Exception {
+        Long movieId = movieRepository.findAll().get(0).getId();
+        mockMvc.perform(get("/v1/movies/" + movieId)).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/movies/" + movieId)).andExpect(status().isOk());
+        mockMvc.perform(get("/v1/awards/intervals")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds_bucket{application=\"challange\"")
+                .contains("uri=\"/v1/movies/{id}\"")
+                .contains("spring_data_repository_invocations_seconds_count{")
+                .containsPattern("spring_data_repository_rows_count\\{.*method=\"findWinningCredits\".*repository=\"MovieRepository\"")
+                .contains("outsera_loader_phase_seconds_count{application=\"challange\",phase=\"parse\"}")
+                .contains("outsera_loader_phase_seconds_count{application=\"challange\",phase=\"resolve\"}")
+                .contains("outsera_loader_phase_seconds_count{application=\"challange\",phase=\"persist\"}")
+                .contains("outsera_loader_rows_total{application=\"challange\",outcome=\"written\"} 206.0")
+                .contains("outsera_loader_throughput_rows")
+                .contains("outsera_awards_computation_seconds_count{application=\"challange\",engine=\"index\",query=\"min-max\"}")
+                .contains("hikaricp_connections_acquire_seconds_count")
+                .containsPattern("cache_gets_total\\{application=\"challange\",cache=\"movies\",.*result=\"hit\"} [1-9]");
+    }
+}
@@ -0,0 +1,102 @@
+package com.pedro.orso.outsera.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.orso.outsera.domain.Movie;
+import com.pedro.orso.outsera.repository.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MovieExportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:movie_export_test_db;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    public void testNdjsonHasEveryMovieAsReadById() throws Exception {
+        List<String> lines = export("ndjson", MediaType.APPLICATION_NDJSON);
+
+        assertThat(lines).hasSize((int) movieRepository.count());
+        for (String line : List.of(lines.get(0), lines.get(lines.size() / 2), lines.get(lines.size() - 1))) {
+            JsonNode exported = objectMapper.readTree(line);
+            String byId = mockMvc.perform(get("/v1/movies/{id}", exported.get("id").asLong()))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertThat(exported).isEqualTo(objectMapper.readTree(byId));
+        }
+        assertThat(lines).anySatisfy(line -> assertThat(objectMapper.readTree(line).get("studios")).hasSizeGreaterThan(1));
+    }
+
+    @Test
+    public void testCsvImportsBackUnchanged() throws Exception {
+        Movie movie = new Movie();
+        movie.setTitle("Quoted \"Title\"; with \\ escapes");
+        movie.setReleaseYear(2035);
+        movie.setWinner(false);
+        movieRepository.save(movie);
+        long movies = movieRepository.count();
+
+        List<String> lines = export("csv", new MediaType("text", "csv", StandardCharsets.UTF_8));
+        assertThat(lines).hasSize((int) movies + 1);
+        assertThat(lines.get(0)).isEqualTo("year;title;studios;producers;winner");
+
+        mockMvc.perform(post("/v1/movies/import").contentType("text/csv")
+                        .content(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(0))
+                .andExpect(jsonPath("$.rejected").value(0));
+        assertThat(movieRepository.count()).isEqualTo(movies);
+        assertThat(movieRepository.findByTitle(movie.getTitle())).isPresent();
+    }
+
+    @Test
+    public void testUnknownFormat() throws Exception {
+        mockMvc.perform(get("/v1/movies/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<String> export(String format, MediaType contentType) throws Exception {
+        MvcResult result = mockMvc.perform(get("/v1/movies/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(contentType))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        return body.lines().toList();
+    }
+}
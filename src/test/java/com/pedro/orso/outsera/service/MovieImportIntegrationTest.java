@@ -0,0 +1,82 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.domain.Movie;
+import com.pedro.orso.outsera.repository.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MovieImportIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () ->
+                "jdbc:h2:mem:movie_import_test_db;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    @Transactional
+    public void testImportCsv() throws Exception {
+        String csv = """
+                year;title;studios;producers;winner
+                2030;Imported Movie;Imported Studio;Imported Producer and Allan Carr;yes
+                2031;Another Imported Movie;Imported Studio;Imported Producer;
+                1980;Cruising;Lorimar Productions;Jerry Weintraub;yes
+                not a year;Broken Movie;Studio;Producer;
+                2032;Incomplete Movie
+                """;
+
+        mockMvc.perform(post("/v1/movies/import").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(2))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.rejected").value(2));
+
+        Movie imported = movieRepository.findByTitle("Imported Movie").orElseThrow();
+        assertEquals(List.of("Imported Producer", "Allan Carr"),
+                imported.getProducers().stream().map(producer -> producer.getName()).toList());
+        assertTrue(imported.isWinner());
+
+        Movie updated = movieRepository.findByTitle("Cruising").orElseThrow();
+        assertTrue(updated.isWinner());
+        assertEquals(1, updated.getStudios().size());
+    }
+
+    @Test
+    public void testImportNdjson() throws Exception {
+        String ndjson = """
+                {"year": 2040, "title": "NDJSON Movie", "studios": ["NDJSON Studio"], "producers": "Producer A and Producer B", "winner": true}
+                {"year": "unknown", "title": "Broken"}
+                {not json
+                """;
+
+        mockMvc.perform(post("/v1/movies/import").contentType("application/x-ndjson").content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inserted").value(1))
+                .andExpect(jsonPath("$.updated").value(0))
+                .andExpect(jsonPath("$.rejected").value(2));
+    }
+}
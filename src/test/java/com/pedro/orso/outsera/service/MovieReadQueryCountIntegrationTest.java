@@ -0,0 +1,77 @@
+package com.pedro.orso.outsera.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MovieReadQueryCountIntegrationTest {
+
+    // The page itself, then the studios and the producers of all its movies
+    private static final long STATEMENTS_PER_PAGE = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () ->
+                "jdbc:h2:mem:movie_read_query_count_test_db;DB_CLOSE_DELAY=-1");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+    }
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testStatementsPerPageDoNotGrowWithPageSize() throws Exception {
+        for (int size : new int[]{1, 20, 100}) {
+            statistics.clear();
+
+            mockMvc.perform(get("/v1/movies").param("size", String.valueOf(size)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(size))
+                    .andExpect(jsonPath("$[0].producers").isNotEmpty());
+
+            assertEquals(STATEMENTS_PER_PAGE, statistics.getPrepareStatementCount(), "Page size " + size);
+        }
+    }
+
+    @Test
+    public void testCursorPagesAndDetailUseTheSameReadPath() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/v1/movies").param("after", "").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(50));
+        assertEquals(STATEMENTS_PER_PAGE, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        mockMvc.perform(get("/v1/movies/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.studios").isNotEmpty());
+        assertEquals(STATEMENTS_PER_PAGE, statistics.getPrepareStatementCount());
+    }
+}
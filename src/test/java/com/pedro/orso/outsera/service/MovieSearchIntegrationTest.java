@@ -0,0 +1,124 @@
+package com.pedro.orso.outsera.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pedro.orso.outsera.domain.Movie;
+import com.pedro.orso.outsera.repository.MovieRepository;
+import com.pedro.orso.outsera.web.rest.util.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class MovieSearchIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () ->
+                "jdbc:h2:mem:movie_search_test_db;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    public void testFilterByYearAndWinner() throws Exception {
+        List<Long> expected = expectedIds(movie -> movie.getReleaseYear() > 2010 && movie.isWinner());
+        assertFalse(expected.isEmpty());
+
+        assertEquals(expected, ids(get("/v1/movies")
+                .param("releaseYear.greaterThan", "2010")
+                .param("winner.equals", "true")));
+    }
+
+    @Test
+    public void testFilterByTitleIgnoresCase() throws Exception {
+        List<Long> expected = expectedIds(movie -> movie.getTitle().toLowerCase().contains("star"));
+        assertFalse(expected.isEmpty());
+
+        assertEquals(expected, ids(get("/v1/movies").param("title.contains", "STAR")));
+        assertEquals(List.of(), ids(get("/v1/movies").param("title.contains", "%")));
+    }
+
+    @Test
+    @Transactional
+    public void testFilterByProducer() throws Exception {
+        List<Long> expected = expectedIds(movie -> movie.getProducers().stream()
+                .anyMatch(producer -> producer.getName().equals("Allan Carr")));
+        assertEquals(2, expected.size());
+
+        assertEquals(expected, ids(get("/v1/movies").param("producer.equals", "Allan Carr")));
+    }
+
+    @Test
+    public void testFilteredOffsetAndCursorPages() throws Exception {
+        List<Long> expected = expectedIds(movie -> movie.getReleaseYear() < 1990);
+
+        assertEquals(expected.subList(10, 20), ids(get("/v1/movies")
+                .param("releaseYear.lessThan", "1990")
+                .param("page", "1")
+                .param("size", "10")
+                .param("sort", "title,asc")
+                .param("sort", "id,asc")));
+
+        List<Long> walked = new ArrayList<>();
+        String after = "";
+        while (after != null) {
+            MvcResult result = mockMvc.perform(get("/v1/movies")
+                            .param("releaseYear.lessThan", "1990")
+                            .param("after", after)
+                            .param("size", "7"))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            objectMapper.readTree(result.getResponse().getContentAsString())
+                    .forEach(movie -> walked.add(movie.get("id").asLong()));
+            after = result.getResponse().getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+        }
+        assertEquals(expected, walked);
+    }
+
+    private List<Long> expectedIds(Predicate<Movie> filter) {
+        return movieRepository.findAll(Sort.by("title", "id")).stream()
+                .filter(filter)
+                .map(Movie::getId)
+                .toList();
+    }
+
+    private List<Long> ids(MockHttpServletRequestBuilder request) throws Exception {
+        request.param("size", "500").param("sort", "title,asc").param("sort", "id,asc");
+        String body = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode movie : objectMapper.readTree(body)) {
+            ids.add(movie.get("id").asLong());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,99 @@
+package com.pedro.orso.outsera.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ResponseBytesCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private MovieService movieService;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () ->
+                "jdbc:h2:mem:response_bytes_cache_test_db;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    public void testRepeatedPagesAreNotRebuilt() throws Exception {
+        clearInvocations(movieService);
+        String first = mockMvc.perform(get("/v1/movies").param("size", "10").param("page", "0"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        // Same parameters in another order
+        String second = mockMvc.perform(get("/v1/movies").param("page", "0").param("size", "10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(second).isEqualTo(first);
+        verify(movieService, times(1)).getAllMovies(any(), any());
+
+        // A write moves to a new dataset version, the page is built again
+        mockMvc.perform(post("/v1/studios")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Response Cache Studio\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/v1/movies").param("size", "10").param("page", "0"))
+                .andExpect(status().isOk());
+        verify(movieService, times(2)).getAllMovies(any(), any());
+    }
+
+    @Test
+    public void testGzipIsServedToClientsAcceptingIt() throws Exception {
+        byte[] plain = mockMvc.perform(get("/v1/movies").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        byte[] gzipped = mockMvc.perform(get("/v1/movies").param("size", "50")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                // Both encodings carry the same version, which only a weak ETag may do
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/")))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        mockMvc.perform(get("/v1/movies").param("size", "50")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().bytes(plain));
+
+        assertThat(gzipped.length).isLessThan(plain.length);
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            assertThat(input.readAllBytes()).isEqualTo(plain);
+        }
+    }
+}
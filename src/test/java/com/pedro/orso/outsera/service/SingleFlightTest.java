@@ -0,0 +1,89 @@
+package com.pedro.orso.outsera.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 64;
+
+    @Test
+    public void testBurstSharesOneComputation() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", meterRegistry);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(callers.submit(() -> singleFlight.execute("intervals", () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return 42;
+                })));
+            }
+            // Every caller but the one computing ends up parked on the shared call
+            while (meterRegistry.counter("singleflight.coalesced", "name", "test").count() < CALLERS - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(42);
+            }
+        }
+
+        assertThat(computations.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("singleflight.executions", "name", "test").count()).isEqualTo(1);
+
+        // Nothing is kept once the call completed
+        assertThat(singleFlight.execute("intervals", computations::incrementAndGet)).isEqualTo(2);
+    }
+
+    @Test
+    public void testFailureReachesEveryWaiterAndIsNotKept() throws Exception {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test", meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> first = callers.submit(() -> singleFlight.execute("key", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            started.await();
+            Future<Integer> second = callers.submit(() -> singleFlight.execute("key", () -> 1));
+            while (meterRegistry.counter("singleflight.coalesced", "name", "test").count() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertThatThrownBy(first::get).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(second::get).hasCauseInstanceOf(IllegalStateException.class);
+        }
+        assertThat(singleFlight.execute("key", () -> 7)).isEqualTo(7);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.domain.Producer;
+import com.pedro.orso.outsera.repository.ProducerRepository;
+import com.pedro.orso.outsera.web.rest.AwardResource;
+import com.pedro.orso.outsera.web.rest.dto.MovieDTO;
+import com.pedro.orso.outsera.web.rest.dto.ProducerDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StaleWhileRevalidateIntegrationTest {
+
+    private static final int FAR_FUTURE = 3000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AwardService awardService;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private ProducerRepository producerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () ->
+                "jdbc:h2:mem:stale_while_revalidate_test_db;DB_CLOSE_DELAY=-1");
+        registry.add("outsera.awards.max-staleness", () -> "1h");
+    }
+
+    @Test
+    public void testStaleResultIsServedWhileRecomputed() throws Exception {
+        mockMvc.perform(get("/v1/awards/intervals"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(AwardResource.FRESHNESS_HEADER, "fresh"));
+        double executions = executions();
+
+        // Unchanged data is served from the last result
+        mockMvc.perform(get("/v1/awards/intervals"))
+                .andExpect(header().string(AwardResource.FRESHNESS_HEADER, "fresh"));
+        assertThat(executions()).isEqualTo(executions);
+
+        Producer producer = saveProducer("Stale Producer");
+        saveWinner("Stale One", 1900, producer);
+        saveWinner("Stale Two", FAR_FUTURE, producer);
+
+        MvcResult stale = mockMvc.perform(get("/v1/awards/intervals"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(AwardResource.FRESHNESS_HEADER, startsWith("stale")))
+                .andReturn();
+        assertThat(stale.getResponse().getContentAsString()).doesNotContain("Stale Producer");
+
+        // The background refresh catches up without any reader waiting for it
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        MvcResult fresh;
+        do {
+            Thread.sleep(20);
+            fresh = mockMvc.perform(get("/v1/awards/intervals")).andReturn();
+        } while (!"fresh".equals(fresh.getResponse().getHeader(AwardResource.FRESHNESS_HEADER))
+                && System.nanoTime() < deadline);
+        assertThat(fresh.getResponse().getHeader(AwardResource.FRESHNESS_HEADER)).isEqualTo("fresh");
+        assertThat(fresh.getResponse().getContentAsString()).contains("Stale Producer");
+        assertThat(fresh.getResponse().getHeader(HttpHeaders.ETAG))
+                .isNotEqualTo(stale.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void testReadersWaitPastMaxStaleness() throws Exception {
+        Duration maxStaleness = (Duration) ReflectionTestUtils.getField(awardService, "maxStaleness");
+        ReflectionTestUtils.setField(awardService, "maxStaleness", Duration.ZERO);
+        try {
+            awardService.getMinAndMaxIntervals();
+            Producer producer = saveProducer("Blocking Producer");
+            saveWinner("Blocking One", 1800, producer);
+            saveWinner("Blocking Two", 1800, producer);
+
+            mockMvc.perform(get("/v1/awards/intervals"))
+                    .andExpect(header().string(AwardResource.FRESHNESS_HEADER, "fresh"))
+                    .andExpect(jsonPath("$.min[*].producer", hasItem("Blocking Producer")));
+        } finally {
+            ReflectionTestUtils.setField(awardService, "maxStaleness", maxStaleness);
+        }
+    }
+
+    @Test
+    public void testStalenessCountsFromTheWrite() throws Exception {
+        Duration maxStaleness = (Duration) ReflectionTestUtils.getField(awardService, "maxStaleness");
+        ReflectionTestUtils.setField(awardService, "maxStaleness", Duration.ofMillis(200));
+        try {
+            awardService.getMinAndMaxIntervals();
+            Producer producer = saveProducer("Quiet Producer");
+            saveWinner("Quiet One", 1700, producer);
+            saveWinner("Quiet Two", 1700, producer);
+
+            // Nobody reads for longer than the staleness bound, the first reader must not get the old result
+            Thread.sleep(400);
+            mockMvc.perform(get("/v1/awards/intervals"))
+                    .andExpect(header().string(AwardResource.FRESHNESS_HEADER, "fresh"))
+                    .andExpect(jsonPath("$.min[*].producer", hasItem("Quiet Producer")));
+        } finally {
+            ReflectionTestUtils.setField(awardService, "maxStaleness", maxStaleness);
+        }
+    }
+
+    private double executions() {
+        return meterRegistry.counter("singleflight.executions", "name", "award-intervals").count();
+    }
+
+    private Producer saveProducer(String name) {
+        Producer producer = new Producer();
+        producer.setName(name);
+        return producerRepository.save(producer);
+    }
+
+    private void saveWinner(String title, int year, Producer producer) {
+        ProducerDto credit = new ProducerDto();
+        credit.setId(producer.getId());
+
+        MovieDTO movie = new MovieDTO();
+        movie.setTitle(title);
+        movie.setReleaseYear(year);
+        movie.setWinner(true);
+        movie.setProducers(List.of(credit));
+        movieService.createMovie(movie);
+    }
+}
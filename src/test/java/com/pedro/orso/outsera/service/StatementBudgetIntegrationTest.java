@@ -0,0 +1,84 @@
+package com.pedro.orso.outsera.service;
+
+import com.pedro.orso.outsera.diagnostics.StatementCount;
+import com.pedro.orso.outsera.repository.MovieRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statements per request, counted on the connection, JdbcTemplate queries included. A budget going over usually
+ * means a query per row crept back in.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StatementBudgetIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:mem:statement_budget_test_db;DB_CLOSE_DELAY=-1");
+    }
+
+    @Test
+    public void testReadsStayWithinBudget() throws Exception {
+        // The page, then the studios and the producers of all its movies
+        assertWithinBudget(3, get("/v1/movies").param("size", "50"));
+        assertWithinBudget(3, get("/v1/movies").param("size", "200"));
+        assertWithinBudget(3, get("/v1/movies").param("after", "").param("size", "50"));
+        assertWithinBudget(3, get("/v1/movies").param("producer.contains", "a").param("size", "50"));
+
+        Long movieId = movieRepository.findAll().get(0).getId();
+        assertWithinBudget(3, get("/v1/movies/{id}", movieId));
+        assertWithinBudget(0, get("/v1/movies/{id}", movieId));
+
+        assertWithinBudget(1, get("/v1/producers"));
+        assertWithinBudget(1, get("/v1/studios"));
+        assertWithinBudget(0, get("/v1/awards/intervals"));
+        assertWithinBudget(0, get("/v1/awards/intervals").param("top", "3"));
+    }
+
+    @Test
+    public void testWritesDoNotIssueStatementsPerRow() throws Exception {
+        // Studios and producers read in one query each, the movie with its join rows, then the win intervals
+        assertWithinBudget(8, post("/v1/movies").contentType(MediaType.APPLICATION_JSON).content("""
+                {"title": "Budget Movie", "releaseYear": 2030, "winner": true,
+                 "studios": [{"id": 1}, {"id": 2}], "producers": [{"id": 1}, {"id": 2}, {"id": 3}]}
+                """));
+
+        StringBuilder csv = new StringBuilder("year;title;studios;producers;winner\n");
+        for (int i = 0; i < 100; i++) {
+            csv.append(2040 + i % 10).append(";Budget Import ").append(i)
+                    .append(";Budget Studio ").append(i)
+                    .append(";Budget Producer ").append(i).append(" and Budget Producer ").append(i + 1)
+                    .append(";yes\n");
+        }
+        // 100 rows with 101 new producers and 100 new studios: batched inserts and one sequence call per 50 ids
+        assertWithinBudget(20, post("/v1/movies/import").contentType("text/csv").content(csv.toString()));
+    }
+
+    private void assertWithinBudget(int budget, RequestBuilder request) throws Exception {
+        try (StatementCount count = StatementCount.begin()) {
+            mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+            assertThat(count.total()).as("%s", count).isLessThanOrEqualTo(budget);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.pedro.orso.outsera.service.award;
+
+import com.pedro.orso.outsera.web.rest.dto.ProducerIntervalResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelIntervalScanTest {
+
+    @Test
+    public void testPartitionsMatchSingleScan() {
+        Random random = new Random(13);
+        for (int round = 0; round < 50; round++) {
+            WinningYears data = WinningYears.random(random, 1 + random.nextInt(2_000), 1 + random.nextInt(300), 40);
+            ProducerIntervalResponseDTO expected = response(compute(1, data, Integer.MAX_VALUE), data);
+
+            for (int threshold : new int[]{2, 7, 64}) {
+                ForkJoinPool pool = new ForkJoinPool(4);
+                try {
+                    IntervalCandidates candidates = ParallelAwardIntervalEngine.compute(pool,
+                            data.producerIds, data.years, data.size, threshold);
+                    assertThat(response(candidates, data)).as("round %d, threshold %d", round, threshold)
+                            .isEqualTo(expected);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        }
+    }
+
+    /**
+     * Run with {@code mvn test -Dtest=ParallelIntervalScanTest -Dbenchmark=true}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    public void benchmarkScaling() {
+        WinningYears data = WinningYears.random(new Random(14), 20_000_000, 2_000_000, 60);
+        double baseline = 0;
+        for (int threads : new int[]{1, 4, 16, 32}) {
+            long best = Long.MAX_VALUE;
+            for (int run = 0; run < 5; run++) {
+                long start = System.nanoTime();
+                compute(threads, data, ParallelAwardIntervalEngine.DEFAULT_THRESHOLD);
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            baseline = threads == 1 ? best : baseline;
+            System.out.printf("%2d threads: %6.1f ms, speedup %.2fx%n", threads, best / 1e6, baseline / best);
+        }
+    }
+
+    private static IntervalCandidates compute(int threads, WinningYears data, int threshold) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return ParallelAwardIntervalEngine.compute(pool, data.producerIds, data.years, data.size, threshold);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static ProducerIntervalResponseDTO response(IntervalCandidates candidates, WinningYears data) {
+        Map<Long, String> names = new HashMap<>();
+        for (Long id : candidates.producerIds()) {
+            names.put(id, "Producer " + id);
+        }
+        return candidates.toResponse(names);
+    }
+
+    private record WinningYears(long[] producerIds, int[] years, int size) {
+
+        /**
+         * Pairs sorted by producer and year, with repeated years and single win producers.
+         */
+        static WinningYears random(Random random, int size, int producers, int yearSpan) {
+            long[] producerIds = new long[size];
+            int[] years = new int[size];
+            for (int i = 0; i < size; i++) {
+                producerIds[i] = random.nextInt(producers);
+            }
+            java.util.Arrays.sort(producerIds);
+            for (int i = 0; i < size; i++) {
+                boolean sameProducer = i > 0 && producerIds[i] == producerIds[i - 1];
+                years[i] = sameProducer ? years[i - 1] + random.nextInt(yearSpan) : 1900 + random.nextInt(yearSpan);
+            }
+            return new WinningYears(producerIds, years, size);
+        }
+    }
+}
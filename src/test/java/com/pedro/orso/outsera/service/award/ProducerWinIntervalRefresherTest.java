@@ -0,0 +1,25 @@
+package com.pedro.orso.outsera.service.award;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class ProducerWinIntervalRefresherTest {
+
+    @Test
+    public void testTableIsLeftAloneWhenTheMaterializedEngineIsNotSelected() {
+        NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+        ProducerWinIntervalRefresher refresher = new ProducerWinIntervalRefresher(jdbcTemplate, "index", false);
+
+        // Outside of a transaction too, where a maintained table would refuse the touch
+        refresher.touch(List.of(1L, 2L));
+        refresher.refresh(List.of(1L, 2L));
+        refresher.refreshAll();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,101 @@
+package com.pedro.orso.outsera.service.loader;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CsvIngestionPipelineTest {
+
+    private static final String MOVIES = """
+            year;title;studios;producers;winner
+            1980;First Movie;Studio A;Producer A;yes
+            1981;Second Movie;Studio B;Producer B and Producer C;
+            1982;Third Movie;Studio A, Studio C;Producer A;yes""";
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testLastLineWithoutLineBreakIsLoaded() throws Exception {
+        for (int chunkBytes : new int[]{16, 50, 64, 1024}) {
+            List<String> titles = new ArrayList<>();
+            LoadReport report = pipeline(chunkBytes, titles).load(new FileSystemResource(file(MOVIES)));
+
+            assertThat(titles).as("Chunks of %d bytes", chunkBytes)
+                    .containsExactly("First Movie", "Second Movie", "Third Movie");
+            assertThat(report.rows()).isEqualTo(3);
+            assertThat(report.rejectedRows()).isZero();
+        }
+    }
+
+    @Test
+    public void testManyChunksAreCommittedInFileOrder() throws Exception {
+        StringBuilder csv = new StringBuilder("year;title;studios;producers;winner\n");
+        IntStream.range(0, 500).forEach(i -> csv.append(1980 + i % 40).append(";Movie ").append(i)
+                .append(";Studio;Producer ").append(i % 7).append(";\n"));
+        List<String> titles = new ArrayList<>();
+
+        pipeline(64, titles).load(new FileSystemResource(file(csv.toString())));
+
+        assertThat(titles).containsExactlyElementsOf(IntStream.range(0, 500).mapToObj(i -> "Movie " + i).toList());
+    }
+
+    @Test
+    public void testParserFailureFailsTheLoad() throws Exception {
+        List<String> titles = new ArrayList<>();
+        LoaderMetrics loaderMetrics = mock(LoaderMetrics.class);
+        doThrow(new IllegalStateException("Parser bug")).when(loaderMetrics).parsed(anyLong(), anyLong());
+        CsvIngestionPipeline pipeline = pipeline(16, titles, loaderMetrics);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () ->
+                assertThatThrownBy(() -> pipeline.load(new FileSystemResource(file(MOVIES))))
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageStartingWith("Could not parse chunk")
+                        .hasRootCauseMessage("Parser bug"));
+        assertThat(titles).isEmpty();
+    }
+
+    private CsvIngestionPipeline pipeline(int chunkBytes, List<String> titles) {
+        return pipeline(chunkBytes, titles, new LoaderMetrics(new SimpleMeterRegistry()));
+    }
+
+    private CsvIngestionPipeline pipeline(int chunkBytes, List<String> titles, LoaderMetrics loaderMetrics) {
+        MovieChunkWriter writer = mock(MovieChunkWriter.class);
+        when(writer.openDictionary()).thenReturn(new NameDictionary(List.of(), List.of()));
+        doAnswer(invocation -> {
+            List<MovieRow> rows = invocation.getArgument(0);
+            rows.forEach(row -> titles.add(row.title()));
+            return null;
+        }).when(writer).write(any(), any());
+
+        CsvIngestionPipeline pipeline = new CsvIngestionPipeline(writer, loaderMetrics);
+        ReflectionTestUtils.setField(pipeline, "chunkBytes", chunkBytes);
+        ReflectionTestUtils.setField(pipeline, "parserThreads", 2);
+        ReflectionTestUtils.setField(pipeline, "queueCapacity", 2);
+        return pipeline;
+    }
+
+    private Path file(String content) throws Exception {
+        return Files.writeString(directory.resolve("movies.csv"), content, StandardCharsets.UTF_8);
+    }
+}
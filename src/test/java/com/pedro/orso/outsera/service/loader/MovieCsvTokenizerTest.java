@@ -0,0 +1,93 @@
+package com.pedro.orso.outsera.service.loader;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReaderBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MovieCsvTokenizerTest {
+
+    @Test
+    public void testTokenizerMatchesOpenCsvOnMovieList() throws Exception {
+        ClassPathResource csvFile = new ClassPathResource("movielist.csv");
+
+        List<MovieRow> expected = new ArrayList<>();
+        try (InputStreamReader reader = new InputStreamReader(csvFile.getInputStream(), StandardCharsets.UTF_8);
+             var csvReader = new CSVReaderBuilder(reader)
+                     .withCSVParser(new CSVParserBuilder().withSeparator(';').build())
+                     .withSkipLines(1)
+                     .build()) {
+            String[] values;
+            while ((values = csvReader.readNext()) != null) {
+                if (values.length < 5) {
+                    continue;
+                }
+                expected.add(new MovieRow(
+                        Integer.parseInt(values[0].trim()),
+                        values[1].trim(),
+                        MovieRowParser.splitStudios(values[2]),
+                        MovieRowParser.splitProducers(values[3]),
+                        "yes".equalsIgnoreCase(values[4].trim())));
+            }
+        }
+
+        byte[] bytes = csvFile.getContentAsByteArray();
+        int firstLine = new String(bytes, StandardCharsets.UTF_8).indexOf('\n') + 1;
+        MovieCsvTokenizer tokenizer = new MovieCsvTokenizer(ByteBuffer.wrap(bytes).slice(firstLine, bytes.length - firstLine));
+
+        List<MovieRow> actual = new ArrayList<>();
+        while (tokenizer.next()) {
+            if (tokenizer.isComplete()) {
+                actual.add(tokenizer.toRow());
+            }
+        }
+
+        assertEquals(206, actual.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testProducerSeparators() {
+        MovieCsvTokenizer tokenizer = tokenizer("2000;Title;A, B ,;Ann, Bob and Carl,and Dan and  Eve ;YES\r\n");
+
+        assertTrue(tokenizer.next());
+        assertEquals(2000, tokenizer.year());
+        assertEquals(List.of("A", "B"), tokenizer.studios());
+        assertEquals(MovieRowParser.splitProducers("Ann, Bob and Carl,and Dan and  Eve "), tokenizer.producers());
+        assertTrue(tokenizer.winner());
+        assertFalse(tokenizer.next());
+    }
+
+    @Test
+    public void testIncompleteAndInvalidLines() {
+        MovieCsvTokenizer tokenizer = tokenizer("\n   \n2000;Only title\nnineteen;Title;Studio;Producer;\n1990;\"Quoted; title\";S;P;yes");
+
+        assertTrue(tokenizer.next());
+        assertFalse(tokenizer.isComplete());
+
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.isComplete());
+        assertThrows(NumberFormatException.class, tokenizer::year);
+        assertFalse(tokenizer.winner());
+
+        assertTrue(tokenizer.next());
+        assertTrue(tokenizer.isQuoted());
+        assertEquals("1990;\"Quoted; title\";S;P;yes", tokenizer.line());
+        assertFalse(tokenizer.next());
+    }
+
+    private static MovieCsvTokenizer tokenizer(String content) {
+        return new MovieCsvTokenizer(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+    }
+}
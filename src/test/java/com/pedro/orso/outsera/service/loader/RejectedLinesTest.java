@@ -0,0 +1,27 @@
+package com.pedro.orso.outsera.service.loader;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RejectedLinesTest {
+
+    @Test
+    public void testRejectionsAreCountedPastTheSample() {
+        RejectedLines rejectedLines = new RejectedLines(2);
+        for (int i = 0; i < 5; i++) {
+            rejectedLines.reject("line", "bad " + i);
+        }
+        assertThat(rejectedLines.count()).isEqualTo(5);
+    }
+
+    @Test
+    public void testContentCannotForgeLogLines() {
+        assertThat(RejectedLines.printable("1980;Title\n2024-01-01 INFO forged\r\u001b[31m"))
+                .isEqualTo("1980;Title\\n2024-01-01 INFO forged\\r\\u001b[31m");
+
+        String printable = RejectedLines.printable("x".repeat(5_000));
+        assertThat(printable).startsWith("x".repeat(RejectedLines.MAX_LOGGED_LENGTH) + "...")
+                .endsWith("(5000 chars)");
+    }
+}
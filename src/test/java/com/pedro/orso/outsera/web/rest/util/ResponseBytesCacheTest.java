@@ -0,0 +1,24 @@
+package com.pedro.orso.outsera.web.rest.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResponseBytesCacheTest {
+
+    @Test
+    public void testAcceptEncodingQualities() {
+        assertThat(ResponseBytesCache.acceptsGzip("gzip, deflate")).isTrue();
+        assertThat(ResponseBytesCache.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(ResponseBytesCache.acceptsGzip("*")).isTrue();
+
+        assertThat(ResponseBytesCache.acceptsGzip(null)).isFalse();
+        assertThat(ResponseBytesCache.acceptsGzip("identity")).isFalse();
+        assertThat(ResponseBytesCache.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(ResponseBytesCache.acceptsGzip("gzip; q=0.000, deflate")).isFalse();
+        // A named coding wins over the wildcard, whatever the order
+        assertThat(ResponseBytesCache.acceptsGzip("*, gzip;q=0")).isFalse();
+        assertThat(ResponseBytesCache.acceptsGzip("*;q=0")).isFalse();
+        assertThat(ResponseBytesCache.acceptsGzip("x-gzip-like")).isFalse();
+    }
+}